@@ -0,0 +1,69 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.render;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o {@link ValueFormatter} com o {@code String.format} que ele substituiu na
+ * renderização das linhas do ranking. Rodar com {@code mvn -P jmh verify}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValueFormatterBenchmark {
+
+    private static final int VALUES = 1024;
+
+    private final ValueFormatter grouped = ValueFormatter.GROUPED;
+    private final ValueFormatter fixed = ValueFormatter.parse("fixed:2");
+    // Valores variados, para o JIT não especializar em um único número
+    private double[] values;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        values = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = Math.pow(10, random.nextInt(10)) * random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public String groupedValueFormatter() {
+        return grouped.format(next());
+    }
+
+    @Benchmark
+    public String groupedStringFormat() {
+        return String.format("%,.0f", next());
+    }
+
+    @Benchmark
+    public String fixedValueFormatter() {
+        return fixed.format(next());
+    }
+
+    @Benchmark
+    public String fixedStringFormat() {
+        return String.format("%,.2f", next());
+    }
+
+    private double next() {
+        return values[cursor++ & (VALUES - 1)];
+    }
+}
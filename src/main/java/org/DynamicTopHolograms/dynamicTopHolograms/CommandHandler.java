@@ -1,5 +1,9 @@
 package org.DynamicTopHolograms.dynamicTopHolograms;
 
+import org.DynamicTopHolograms.dynamicTopHolograms.data.HologramConfig;
+import org.DynamicTopHolograms.dynamicTopHolograms.metrics.LatencyHistogram;
+import org.DynamicTopHolograms.dynamicTopHolograms.metrics.UpdateMetrics;
+import org.DynamicTopHolograms.dynamicTopHolograms.sampling.PlaceholderCache;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
@@ -9,6 +13,7 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -60,6 +65,10 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
                 return handleSetDbCommand(sender, args);
             case "dblist":
                 return handleDbList(sender, args);
+            case "stats":
+                return handleStats(sender, args);
+            case "export":
+                return handleExport(sender);
             case "language":
             case "lang":
                 if (!sender.hasPermission("dynamictopholograms.admin")) {
@@ -121,10 +130,10 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         }
 
         // Obter configuração atual para preservar título e ordem
-        Map<String, Object> currentConfig = hologramManager.getHologramConfig(hologramId);
-        String title = (String) currentConfig.getOrDefault("title", "&6&lTop {placeholder_name}");
-        String format = "&e{rank}. &f{player} &7- &a{value}"; // Formato padrão
-        boolean ascending = (boolean) currentConfig.getOrDefault("ascending", false);
+        HologramConfig currentConfig = hologramManager.getHologramConfig(hologramId);
+        String title = currentConfig.getTitle();
+        String format = HologramConfig.DEFAULT_FORMAT; // Formato padrão
+        boolean ascending = currentConfig.isAscending();
 
         // Se houver um formato personalizado
         if (args.length > 5) {
@@ -246,10 +255,10 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         }
 
         // Obter configuração atual para preservar título e ordem
-        Map<String, Object> currentConfig = hologramManager.getHologramConfig(hologramID);
-        String title = (String) currentConfig.getOrDefault("title", "&6&lTop {placeholder_name}");
-        String format = "&e{rank}. &f{player} &7- &a{value}"; // Formato padrão
-        boolean ascending = (boolean) currentConfig.getOrDefault("ascending", false);
+        HologramConfig currentConfig = hologramManager.getHologramConfig(hologramID);
+        String title = currentConfig.getTitle();
+        String format = HologramConfig.DEFAULT_FORMAT; // Formato padrão
+        boolean ascending = currentConfig.isAscending();
 
         // Se houver um formato personalizado
         if (args.length > 5) {
@@ -529,10 +538,10 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         }
 
         // Obter configuração atual para preservar título e ordem
-        Map<String, Object> currentConfig = hologramManager.getHologramConfig(hologramID);
-        String title = (String) currentConfig.getOrDefault("title", "&6&lTop {placeholder_name}");
-        String format = "&e{rank}. &f{player} &7- &a{value}"; // Formato padrão
-        boolean ascending = (boolean) currentConfig.getOrDefault("ascending", false);
+        HologramConfig currentConfig = hologramManager.getHologramConfig(hologramID);
+        String title = currentConfig.getTitle();
+        String format = HologramConfig.DEFAULT_FORMAT; // Formato padrão
+        boolean ascending = currentConfig.isAscending();
 
         // Se houver um formato personalizado
         if (args.length > 4) {
@@ -686,12 +695,12 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
 
         sender.sendMessage(getMessage("list-title"));
         for (String id : hologramIDs) {
-            Map<String, Object> config = hologramManager.getHologramConfig(id);
+            HologramConfig config = hologramManager.getHologramConfig(id);
             if (config != null) {
                 Map<String, String> replacements = new HashMap<>();
                 replacements.put("{id}", id);
-                replacements.put("{placeholder}", (String) config.get("placeholder"));
-                replacements.put("{topN}", String.valueOf(config.get("topN")));
+                replacements.put("{placeholder}", config.getSourceLabel());
+                replacements.put("{topN}", String.valueOf(config.getTopN()));
                 sender.sendMessage(getMessage("list-entry", replacements));
             }
         }
@@ -699,6 +708,154 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         return true;
     }
 
+    private boolean handleExport(CommandSender sender) {
+        if (!sender.hasPermission("dynamictopholograms.admin")) {
+            sender.sendMessage(getMessage("no-permission"));
+            return true;
+        }
+
+        sender.sendMessage(getMessage("export-started"));
+        OfflineDataManager offlineDataManager = plugin.getOfflineDataManager();
+        // Percorre todos os jogadores de todos os placeholders: fora da thread principal
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            Map<String, String> replacements = new HashMap<>();
+            String key;
+            try {
+                int count = offlineDataManager.exportToYaml();
+                replacements.put("{count}", String.valueOf(count));
+                replacements.put("{path}", offlineDataManager.getExportFolder().getPath());
+                key = "export-done";
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().severe("Erro ao exportar dados offline: " + e.getMessage());
+                replacements.put("{error}", String.valueOf(e.getMessage()));
+                key = "export-failed";
+            }
+            String message = getMessage(key, replacements);
+            Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(message));
+        });
+        return true;
+    }
+
+    private boolean handleStats(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("dynamictopholograms.stats")) {
+            sender.sendMessage(getMessage("no-permission"));
+            return true;
+        }
+
+        UpdateMetrics metrics = hologramManager.getMetrics();
+        if (args.length > 1) {
+            String hologramID = args[1];
+            if (!hologramManager.hologramExists(hologramID)) {
+                Map<String, String> replacements = new HashMap<>();
+                replacements.put("{id}", hologramID);
+                sender.sendMessage(getMessage("stats-not-found", replacements));
+                return true;
+            }
+
+            Map<String, String> replacements = new HashMap<>();
+            replacements.put("{id}", hologramID);
+            sender.sendMessage(getMessage("stats-detail-title", replacements));
+
+            UpdateMetrics.Stats stats = metrics.getHologramStats(hologramID);
+            if (stats == null) {
+                sender.sendMessage(getMessage("stats-empty"));
+                return true;
+            }
+            sendStageStats(sender, "stats-stage-fetch", stats.getFetch());
+            sendStageStats(sender, "stats-stage-select", stats.getSelect());
+            sendStageStats(sender, "stats-stage-render", stats.getRender());
+
+            replacements.put("{runs}", String.valueOf(stats.getRuns()));
+            replacements.put("{errors}", String.valueOf(stats.getErrors()));
+            replacements.put("{skipped}", String.valueOf(hologramManager.getSkippedRenders(hologramID)));
+            replacements.put("{entries}", stats.getLastEntries() >= 0 ? String.valueOf(stats.getLastEntries()) : "-");
+            replacements.put("{ago}", formatAgo(stats.getLastRunAt()));
+            sender.sendMessage(getMessage("stats-detail-summary", replacements));
+            return true;
+        }
+
+        sender.sendMessage(getMessage("stats-title"));
+        boolean any = false;
+        for (Map.Entry<String, UpdateMetrics.Stats> entry : new TreeMap<>(metrics.getConnectorStats()).entrySet()) {
+            UpdateMetrics.Stats stats = entry.getValue();
+            Map<String, String> replacements = new HashMap<>();
+            replacements.put("{connector}", entry.getKey());
+            replacements.put("{fetch_p50}", formatNanos(stats.getFetch().getPercentile(50)));
+            replacements.put("{fetch_p99}", formatNanos(stats.getFetch().getPercentile(99)));
+            replacements.put("{runs}", String.valueOf(stats.getRuns()));
+            replacements.put("{errors}", String.valueOf(stats.getErrors()));
+            sender.sendMessage(getMessage("stats-connector", replacements));
+            any = true;
+        }
+        for (String id : new TreeSet<>(hologramManager.getConfiguredHologramIDs())) {
+            UpdateMetrics.Stats stats = metrics.getHologramStats(id);
+            if (stats == null) {
+                continue;
+            }
+            Map<String, String> replacements = new HashMap<>();
+            replacements.put("{id}", id);
+            replacements.put("{fetch_last}", formatNanos(stats.getFetch().getLast()));
+            replacements.put("{fetch_p99}", formatNanos(stats.getFetch().getPercentile(99)));
+            replacements.put("{render_last}", formatNanos(stats.getRender().getLast()));
+            replacements.put("{render_p99}", formatNanos(stats.getRender().getPercentile(99)));
+            replacements.put("{entries}", stats.getLastEntries() >= 0 ? String.valueOf(stats.getLastEntries()) : "-");
+            replacements.put("{errors}", String.valueOf(stats.getErrors()));
+            sender.sendMessage(getMessage("stats-hologram", replacements));
+            any = true;
+        }
+        PlaceholderCache cache = hologramManager.getSampler().getCache();
+        long lookups = cache.getHits() + cache.getMisses();
+        if (lookups > 0) {
+            Map<String, String> replacements = new HashMap<>();
+            replacements.put("{hits}", String.valueOf(cache.getHits()));
+            replacements.put("{misses}", String.valueOf(cache.getMisses()));
+            replacements.put("{rate}", String.format("%.1f", cache.getHits() * 100.0 / lookups));
+            replacements.put("{size}", String.valueOf(cache.getSize()));
+            replacements.put("{max}", String.valueOf(cache.getMaxEntries()));
+            replacements.put("{evictions}", String.valueOf(cache.getEvictions()));
+            sender.sendMessage(getMessage("stats-placeholder-cache", replacements));
+            any = true;
+        }
+        for (Map.Entry<String, Long> entry : new TreeMap<>(hologramManager.getSampler().getUnparsedCounts()).entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;
+            }
+            Map<String, String> replacements = new HashMap<>();
+            replacements.put("{placeholder}", entry.getKey());
+            replacements.put("{count}", String.valueOf(entry.getValue()));
+            sender.sendMessage(getMessage("stats-unparsed", replacements));
+            any = true;
+        }
+        if (!any) {
+            sender.sendMessage(getMessage("stats-empty"));
+        }
+        return true;
+    }
+
+    private void sendStageStats(CommandSender sender, String stageKey, LatencyHistogram histogram) {
+        Map<String, String> replacements = new HashMap<>();
+        replacements.put("{stage}", getMessage(stageKey));
+        replacements.put("{last}", formatNanos(histogram.getLast()));
+        replacements.put("{p50}", formatNanos(histogram.getPercentile(50)));
+        replacements.put("{p99}", formatNanos(histogram.getPercentile(99)));
+        replacements.put("{max}", formatNanos(histogram.getCount() > 0 ? histogram.getMax() : -1));
+        replacements.put("{count}", String.valueOf(histogram.getCount()));
+        sender.sendMessage(getMessage("stats-detail-stage", replacements));
+    }
+
+    // Durações em milissegundos com duas casas; "-" quando não há amostras
+    private String formatNanos(long nanos) {
+        return nanos < 0 ? "-" : String.format("%.2f ms", nanos / 1_000_000.0);
+    }
+
+    private String formatAgo(long timestamp) {
+        if (timestamp <= 0) {
+            return "-";
+        }
+        long seconds = Math.max(0, (System.currentTimeMillis() - timestamp) / 1000);
+        return seconds < 60 ? seconds + "s" : seconds / 60 + "min " + seconds % 60 + "s";
+    }
+
     private boolean handleReload(CommandSender sender) {
         if (!sender.hasPermission("dynamictopholograms.reload")) {
             sender.sendMessage(getMessage("no-permission"));
@@ -755,6 +912,8 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         sender.sendMessage(getMessage("help-move"));
         sender.sendMessage(getMessage("help-dbset"));
         sender.sendMessage(getMessage("help-dblist"));
+        sender.sendMessage(getMessage("help-stats"));
+        sender.sendMessage(getMessage("help-export"));
     }
 
     private String getMessage(String key) {
@@ -772,7 +931,7 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
         if (args.length == 1) {
             // Subcomandos principais
             String[] subCommands = { "help", "create", "set", "title", "order", "remove", "list", "reload", "refresh",
-                    "movehere", "move", "dbset", "dblist" };
+                    "movehere", "move", "dbset", "dblist", "stats", "export" };
             return filterCompletions(subCommands, args[0]);
         } else if (args.length == 2) {
             // Para comandos que precisam de hologramID
@@ -783,7 +942,8 @@ public class CommandHandler implements CommandExecutor, TabCompleter {
                     args[0].equalsIgnoreCase("refresh") ||
                     args[0].equalsIgnoreCase("movehere") ||
                     args[0].equalsIgnoreCase("move") ||
-                    args[0].equalsIgnoreCase("dbset")) {
+                    args[0].equalsIgnoreCase("dbset") ||
+                    args[0].equalsIgnoreCase("stats")) {
                 return filterCompletions(
                         hologramManager.getConfiguredHologramIDs().toArray(new String[0]),
                         args[1]);
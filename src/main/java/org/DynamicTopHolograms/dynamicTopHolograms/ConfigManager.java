@@ -92,6 +92,9 @@ public class ConfigManager {
 
     public void reloadConfig() {
         config = YamlConfiguration.loadConfiguration(configFile);
+        if (plugin.getRankingHologramManager() != null) {
+            plugin.getRankingHologramManager().getCycleExecutor().reloadLimits();
+        }
         plugin.getLogger().info("config.yml recarregado.");
     }
 
@@ -116,6 +119,9 @@ public class ConfigManager {
     public void reloadHolograms() {
         holograms = YamlConfiguration.loadConfiguration(hologramsFile);
         plugin.getRankingHologramManager().loadHologramsFromConfig();
+        if (plugin.getRefreshScheduler() != null) {
+            plugin.getRefreshScheduler().reset();
+        }
         plugin.getLogger().info("holograms.yml recarregado.");
     }
 
@@ -206,6 +212,10 @@ public class ConfigManager {
         return config.getLong("update-interval-minutes", 5);
     }
 
+    public long getRenderBudgetMicros() {
+        return config.getLong("render-budget-micros", 2000);
+    }
+
     public boolean isOfflineDataEnabled() {
         return config.getBoolean("enable-offline-data", true);
     }
@@ -1,7 +1,12 @@
 package org.DynamicTopHolograms.dynamicTopHolograms;
 
+import org.DynamicTopHolograms.dynamicTopHolograms.activity.HologramActivityTracker;
 import org.DynamicTopHolograms.dynamicTopHolograms.database.DatabaseConnectorManager;
 import org.DynamicTopHolograms.dynamicTopHolograms.messages.MessageManager;
+import org.DynamicTopHolograms.dynamicTopHolograms.placeholders.DynamicTopExpansion;
+import org.DynamicTopHolograms.dynamicTopHolograms.placeholders.ViewerRankCache;
+import org.DynamicTopHolograms.dynamicTopHolograms.render.PageNavigator;
+import org.DynamicTopHolograms.dynamicTopHolograms.scheduler.HologramRefreshScheduler;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
 // Importações da API DecentHolograms
@@ -14,7 +19,9 @@ public class DynamicTopHolograms extends JavaPlugin {
     private ConfigManager configManager;
     private OfflineDataManager offlineDataManager;
     private MessageManager messageManager;
-    private long updateIntervalTicks;
+    private HologramRefreshScheduler refreshScheduler;
+    private HologramActivityTracker activityTracker;
+    private ViewerRankCache viewerRankCache;
     private DatabaseConnectorManager databaseConnectorManager;
 
     @Override
@@ -51,13 +58,29 @@ public class DynamicTopHolograms extends JavaPlugin {
         // Carregar hologramas da config
         rankingHologramManager.loadHologramsFromConfig();
 
-        // Configurar intervalo de atualização
-        updateIntervalTicks = 20L * 60 * configManager.getUpdateIntervalMinutes();
+        // Fila de renderização na thread principal, limitada por tempo a cada tick
+        rankingHologramManager.getRenderQueue().start();
 
-        // Agendar tarefa de atualização
-        Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
-            rankingHologramManager.updateAllHolograms();
-        }, 20L * 10, updateIntervalTicks); // Delay inicial de 10 segundos
+        // Placeholders resolvidos na thread principal, em lotes limitados por tempo a cada tick
+        getServer().getPluginManager().registerEvents(rankingHologramManager.getSampler(), this);
+        rankingHologramManager.getSampler().start();
+
+        // Acompanhar presença de jogadores perto dos hologramas (hologramas vazios não são atualizados)
+        activityTracker = new HologramActivityTracker(this, rankingHologramManager);
+        getServer().getPluginManager().registerEvents(activityTracker, this);
+        activityTracker.start();
+
+        // Troca de páginas dos hologramas com page-size
+        getServer().getPluginManager().registerEvents(new PageNavigator(this, rankingHologramManager), this);
+
+        // Placeholders por jogador (linha "sua posição" dos hologramas com viewer-line)
+        viewerRankCache = new ViewerRankCache(rankingHologramManager);
+        getServer().getPluginManager().registerEvents(viewerRankCache, this);
+        new DynamicTopExpansion(this, rankingHologramManager, viewerRankCache).register();
+
+        // Agendar atualizações por holograma (cada um com seu intervalo, distribuídos no tempo)
+        refreshScheduler = new HologramRefreshScheduler(this, rankingHologramManager);
+        refreshScheduler.start(20L * 10); // Delay inicial de 10 segundos
 
         // Agendar limpeza de dados expirados (uma vez por dia)
         Bukkit.getScheduler().runTaskTimerAsynchronously(this, () -> {
@@ -71,6 +94,16 @@ public class DynamicTopHolograms extends JavaPlugin {
     public void onDisable() {
         Bukkit.getScheduler().cancelTasks(this);
 
+        if (rankingHologramManager != null) {
+            rankingHologramManager.getSampler().stop();
+            rankingHologramManager.getCycleExecutor().shutdown();
+        }
+
+        // Gravar os dados offline pendentes antes de desligar
+        if (offlineDataManager != null) {
+            offlineDataManager.shutdown();
+        }
+
         // Fechar conexões de banco de dados
         if (databaseConnectorManager != null) {
             databaseConnectorManager.closeAll();
@@ -83,6 +116,18 @@ public class DynamicTopHolograms extends JavaPlugin {
         return databaseConnectorManager;
     }
 
+    public HologramRefreshScheduler getRefreshScheduler() {
+        return refreshScheduler;
+    }
+
+    public HologramActivityTracker getActivityTracker() {
+        return activityTracker;
+    }
+
+    public ViewerRankCache getViewerRankCache() {
+        return viewerRankCache;
+    }
+
     public static DynamicTopHolograms getInstance() {
         return instance;
     }
@@ -1,23 +1,32 @@
 package org.DynamicTopHolograms.dynamicTopHolograms;
 
-import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
+import org.DynamicTopHolograms.dynamicTopHolograms.storage.MySqlOfflineStorage;
+import org.DynamicTopHolograms.dynamicTopHolograms.storage.OfflineDataStorage;
+import org.DynamicTopHolograms.dynamicTopHolograms.storage.OfflineRecord;
+import org.DynamicTopHolograms.dynamicTopHolograms.storage.SnapshotOfflineStorage;
+import org.DynamicTopHolograms.dynamicTopHolograms.storage.SqliteOfflineStorage;
+import org.DynamicTopHolograms.dynamicTopHolograms.storage.YamlOfflineExporter;
+import org.DynamicTopHolograms.dynamicTopHolograms.storage.YamlOfflineMigrator;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 
 import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class OfflineDataManager {
+    // Um valor que não mudou só é regravado para renovar o lastSeen depois deste tempo
+    private static final long LAST_SEEN_RESOLUTION_SECONDS = 3600;
+
     private final DynamicTopHolograms plugin;
     private final File dataFolder;
-    private final Map<String, Map<UUID, OfflinePlayerData>> placeholderData = new ConcurrentHashMap<>();
     private final long expiryDays;
-    
+    // Snapshots binários, SQLite ou MySQL, conforme storage.type
+    private final OfflineDataStorage storage;
+
     public OfflineDataManager(DynamicTopHolograms plugin) {
         this.plugin = plugin;
         this.dataFolder = new File(plugin.getDataFolder(), "playerdata");
@@ -25,169 +34,136 @@ public class OfflineDataManager {
             dataFolder.mkdirs();
         }
         this.expiryDays = plugin.getConfigManager().getConfig().getLong("offline-data-expiry-days", 30);
-        loadAllData();
+        this.storage = openStorage();
     }
-    
+
     public void updatePlayerData(Player player, String placeholder, double value) {
-        UUID playerUUID = player.getUniqueId();
-        String playerName = player.getName();
-        
-        // Obter ou criar o mapa para este placeholder
-        Map<UUID, OfflinePlayerData> playersForPlaceholder = placeholderData.computeIfAbsent(
-                placeholder, k -> new ConcurrentHashMap<>());
-        
-        // Atualizar os dados do jogador
-        playersForPlaceholder.put(playerUUID, new OfflinePlayerData(playerUUID, playerName, value, Instant.now()));
-        
-        // Salvar os dados de forma assíncrona
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> savePlayerData(placeholder, playerUUID));
+        updatePlayerData(player.getUniqueId(), player.getName(), placeholder, value);
     }
-    
-    public List<PlayerDataEntry> getTopPlayers(String placeholder, int topN, boolean ascending) {
-        Map<UUID, OfflinePlayerData> playersForPlaceholder = placeholderData.get(placeholder);
-        if (playersForPlaceholder == null || playersForPlaceholder.isEmpty()) {
-            return new ArrayList<>();
+
+    /**
+     * Registra o valor atual de um jogador (ex: resolvido pelo amostrador na thread principal)
+     *
+     * @param playerUUID  UUID do jogador
+     * @param playerName  nome do jogador
+     * @param placeholder placeholder do ranking
+     * @param value       valor resolvido
+     */
+    public void updatePlayerData(UUID playerUUID, String playerName, String placeholder, double value) {
+        // Valor e nome iguais: nada a fazer, exceto renovar o lastSeen de vez em quando
+        long now = Instant.now().getEpochSecond();
+        OfflineRecord previous = storage.get(placeholder, playerUUID);
+        if (previous != null && Double.compare(previous.getValue(), value) == 0
+                && Objects.equals(previous.getName(), playerName)
+                && now - previous.getLastSeen() < LAST_SEEN_RESOLUTION_SECONDS) {
+            return;
         }
-        
+
+        // Gravado na próxima rodada de gravação do armazenamento
+        storage.put(placeholder, new OfflineRecord(playerUUID, playerName, value, now));
+    }
+
+    /**
+     * Grava as alterações pendentes e fecha o armazenamento (chamado no onDisable)
+     */
+    public void shutdown() {
+        storage.close();
+    }
+
+    public List<PlayerDataEntry> getTopPlayers(String placeholder, int topN, boolean ascending) {
         List<PlayerDataEntry> entries = new ArrayList<>();
-        for (OfflinePlayerData data : playersForPlaceholder.values()) {
-            // Verificar se os dados expiraram
-            if (Instant.now().minusSeconds(expiryDays * 86400).isAfter(data.lastSeen)) {
-                continue;
-            }
-            
-            // Tentar obter o jogador do Bukkit (pode ser null se estiver offline)
-            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(data.uuid);
-            
-            // Criar entrada com dados offline
-            entries.add(new PlayerDataEntry(
-                    data.uuid, 
-                    data.playerName, 
-                    data.value, 
-                    ascending));
-        }
-        
-        // Ordenar a lista
-        Collections.sort(entries);
-        
-        // Limitar ao número desejado
-        if (entries.size() > topN) {
-            entries = entries.subList(0, topN);
+        for (OfflineRecord record : storage.getTop(placeholder, topN, ascending, expiredBefore())) {
+            entries.add(new PlayerDataEntry(record.getUuid(), record.getName(), record.getValue(), ascending));
         }
-        
         return entries;
     }
-    
-    private void loadAllData() {
-        plugin.getLogger().info("Carregando dados offline de jogadores...");
-        File[] files = dataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (files == null) return;
-        
-        for (File file : files) {
-            String placeholder = file.getName().replace(".yml", "");
-            FileConfiguration config = YamlConfiguration.loadConfiguration(file);
-            
-            Map<UUID, OfflinePlayerData> playersForPlaceholder = new ConcurrentHashMap<>();
-            
-            for (String uuidStr : config.getKeys(false)) {
-                try {
-                    UUID uuid = UUID.fromString(uuidStr);
-                    String name = config.getString(uuidStr + ".name");
-                    double value = config.getDouble(uuidStr + ".value");
-                    long lastSeenTimestamp = config.getLong(uuidStr + ".lastSeen");
-                    Instant lastSeen = Instant.ofEpochSecond(lastSeenTimestamp);
-                    
-                    // Verificar se os dados expiraram
-                    if (Instant.now().minusSeconds(expiryDays * 86400).isAfter(lastSeen)) {
-                        continue;
-                    }
-                    
-                    playersForPlaceholder.put(uuid, new OfflinePlayerData(uuid, name, value, lastSeen));
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Erro ao carregar dados para UUID " + uuidStr + ": " + e.getMessage());
-                }
-            }
-            
-            if (!playersForPlaceholder.isEmpty()) {
-                placeholderData.put(placeholder, playersForPlaceholder);
-                plugin.getLogger().info("Carregados " + playersForPlaceholder.size() + " jogadores para placeholder " + placeholder);
-            }
-        }
+
+    /**
+     * Obtém a posição de um jogador no ranking de um placeholder
+     *
+     * @param placeholder placeholder do ranking
+     * @param playerUUID  UUID do jogador
+     * @param ascending   true para menor valor primeiro
+     * @return posição e valor do jogador, ou null se o jogador não tiver dados
+     */
+    public PlayerRank getRank(String placeholder, UUID playerUUID, boolean ascending) {
+        return storage.getRank(placeholder, playerUUID, ascending, expiredBefore());
     }
-    
-    private void savePlayerData(String placeholder, UUID playerUUID) {
-        Map<UUID, OfflinePlayerData> playersForPlaceholder = placeholderData.get(placeholder);
-        if (playersForPlaceholder == null) return;
-        
-        OfflinePlayerData data = playersForPlaceholder.get(playerUUID);
-        if (data == null) return;
-        
-        File file = new File(dataFolder, placeholder + ".yml");
-        FileConfiguration config = YamlConfiguration.loadConfiguration(file);
-        
-        String path = playerUUID.toString();
-        config.set(path + ".name", data.playerName);
-        config.set(path + ".value", data.value);
-        config.set(path + ".lastSeen", data.lastSeen.getEpochSecond());
-        
-        try {
-            config.save(file);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Erro ao salvar dados para jogador " + playerUUID + ": " + e.getMessage());
-        }
+
+    /**
+     * @return tipo do armazenamento em uso (ex: "file", "sqlite", "mysql")
+     */
+    public String getStorageType() {
+        return storage.getType();
     }
-    
+
     public void cleanupExpiredData() {
         plugin.getLogger().info("Limpando dados expirados de jogadores...");
-        
-        for (String placeholder : placeholderData.keySet()) {
-            Map<UUID, OfflinePlayerData> playersForPlaceholder = placeholderData.get(placeholder);
-            if (playersForPlaceholder == null) continue;
-            
-            // Remover jogadores expirados da memória
-            List<UUID> toRemove = new ArrayList<>();
-            for (Map.Entry<UUID, OfflinePlayerData> entry : playersForPlaceholder.entrySet()) {
-                if (Instant.now().minusSeconds(expiryDays * 86400).isAfter(entry.getValue().lastSeen)) {
-                    toRemove.add(entry.getKey());
-                }
-            }
-            
-            for (UUID uuid : toRemove) {
-                playersForPlaceholder.remove(uuid);
+        int removed = storage.removeExpired(expiredBefore());
+        if (removed > 0) {
+            plugin.getLogger().info("Removidos " + removed + " registros expirados de jogadores");
+        }
+    }
+
+    // Dados mais antigos que isso (segundos desde a época) estão expirados
+    private long expiredBefore() {
+        return Instant.now().minusSeconds(expiryDays * 86400).getEpochSecond();
+    }
+
+    private OfflineDataStorage openStorage() {
+        FileConfiguration config = plugin.getConfigManager().getConfig();
+        String type = config.getString("storage.type", "file").toLowerCase(Locale.ROOT);
+        long flushIntervalSeconds = config.getLong("storage.flush-interval-seconds", 30);
+
+        OfflineDataStorage database = null;
+        if ("sqlite".equals(type)) {
+            File databaseFile = new File(plugin.getDataFolder(), config.getString("storage.sqlite.file", "playerdata.db"));
+            database = new SqliteOfflineStorage(plugin, databaseFile, flushIntervalSeconds);
+        } else if ("mysql".equals(type)) {
+            ConfigurationSection mysql = config.getConfigurationSection("storage.mysql");
+            if (mysql != null) {
+                database = new MySqlOfflineStorage(plugin, mysql, flushIntervalSeconds);
+            } else {
+                plugin.getLogger().severe("Seção storage.mysql não encontrada no config.yml.");
             }
-            
-            // Se houver remoções, salvar o arquivo
-            if (!toRemove.isEmpty()) {
-                File file = new File(dataFolder, placeholder + ".yml");
-                if (file.exists()) {
-                    FileConfiguration config = YamlConfiguration.loadConfiguration(file);
-                    
-                    for (UUID uuid : toRemove) {
-                        config.set(uuid.toString(), null);
-                    }
-                    
-                    try {
-                        config.save(file);
-                        plugin.getLogger().info("Removidos " + toRemove.size() + " jogadores expirados para placeholder " + placeholder);
-                    } catch (IOException e) {
-                        plugin.getLogger().severe("Erro ao salvar limpeza de dados para placeholder " + placeholder + ": " + e.getMessage());
-                    }
-                }
+        } else if (!"file".equals(type)) {
+            plugin.getLogger().warning("Tipo de armazenamento não suportado para dados offline: " + type
+                    + ". Usando arquivos.");
+        }
+
+        if (database != null) {
+            if (database.open()) {
+                // Primeira inicialização com banco de dados: importa os arquivos YAML existentes
+                YamlOfflineMigrator.migrate(plugin, dataFolder, database, expiredBefore());
+                return database;
             }
+            plugin.getLogger().severe("Não foi possível abrir o armazenamento " + type + "; usando arquivos.");
         }
+
+        OfflineDataStorage files = new SnapshotOfflineStorage(plugin, dataFolder, expiryDays * 86400,
+                config.getLong("storage.file.journal-commit-millis", 250),
+                config.getLong("storage.file.journal-compact-kb", 4096) * 1024,
+                config.getBoolean("storage.file.compress", false));
+        files.open();
+        // Arquivos YAML do formato antigo (ou exportados) são convertidos para snapshots
+        YamlOfflineMigrator.migrate(plugin, dataFolder, files, expiredBefore());
+        return files;
     }
-    
-    private static class OfflinePlayerData {
-        final UUID uuid;
-        final String playerName;
-        final double value;
-        final Instant lastSeen;
-        
-        OfflinePlayerData(UUID uuid, String playerName, double value, Instant lastSeen) {
-            this.uuid = uuid;
-            this.playerName = playerName;
-            this.value = value;
-            this.lastSeen = lastSeen;
-        }
+
+    /**
+     * Exporta os dados offline de todos os placeholders para arquivos YAML
+     *
+     * @return número de arquivos exportados
+     * @throws IOException se a gravação de algum arquivo falhar
+     */
+    public int exportToYaml() throws IOException {
+        return YamlOfflineExporter.export(storage, getExportFolder());
+    }
+
+    /**
+     * @return pasta para onde {@link #exportToYaml()} grava os arquivos
+     */
+    public File getExportFolder() {
+        return new File(dataFolder, "export");
     }
-}
\ No newline at end of file
+}
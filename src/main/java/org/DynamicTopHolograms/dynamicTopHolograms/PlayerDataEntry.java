@@ -10,6 +10,7 @@ public class PlayerDataEntry implements Comparable<PlayerDataEntry> {
     private final UUID playerUUID;      // UUID do jogador
     private final double value;
     private boolean ascending;          // Ordem de classificação
+    private final String sourceId;      // ID do jogador na fonte de dados (paginação), se houver
 
     public PlayerDataEntry(OfflinePlayer player, double value, boolean ascending) {
         this.player = player;
@@ -17,15 +18,22 @@ public class PlayerDataEntry implements Comparable<PlayerDataEntry> {
         this.playerName = player.getName() != null ? player.getName() : playerUUID.toString().substring(0, 8) + "(Nome?)";
         this.value = value;
         this.ascending = ascending;
+        this.sourceId = null;
     }
     
     // Construtor para dados offline
     public PlayerDataEntry(UUID uuid, String name, double value, boolean ascending) {
+        this(uuid, name, value, ascending, null);
+    }
+    
+    // Construtor para dados de banco de dados, com o ID original da linha
+    public PlayerDataEntry(UUID uuid, String name, double value, boolean ascending, String sourceId) {
         this.player = null;
         this.playerUUID = uuid;
         this.playerName = name != null ? name : uuid.toString().substring(0, 8) + "(Nome?)";
         this.value = value;
         this.ascending = ascending;
+        this.sourceId = sourceId;
     }
 
     public OfflinePlayer getPlayer() {
@@ -44,6 +52,10 @@ public class PlayerDataEntry implements Comparable<PlayerDataEntry> {
         return value;
     }
     
+    public String getSourceId() {
+        return sourceId;
+    }
+    
     public void setAscending(boolean ascending) {
         this.ascending = ascending;
     }
@@ -1,31 +1,64 @@
 package org.DynamicTopHolograms.dynamicTopHolograms;
 
+import org.DynamicTopHolograms.dynamicTopHolograms.data.HologramConfig;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.LeaderboardSnapshot;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.TopKSelector;
 import org.DynamicTopHolograms.dynamicTopHolograms.database.DatabaseConnectorManager;
+import org.DynamicTopHolograms.dynamicTopHolograms.metrics.UpdateMetrics;
+import org.DynamicTopHolograms.dynamicTopHolograms.render.HologramRenderer;
+import org.DynamicTopHolograms.dynamicTopHolograms.render.LineTemplate;
+import org.DynamicTopHolograms.dynamicTopHolograms.render.RenderQueue;
+import org.DynamicTopHolograms.dynamicTopHolograms.render.ValueFormatter;
+import org.DynamicTopHolograms.dynamicTopHolograms.sampling.PlaceholderSampler;
+import org.DynamicTopHolograms.dynamicTopHolograms.sampling.SampledValue;
+import org.DynamicTopHolograms.dynamicTopHolograms.scheduler.ForcedUpdateCoalescer;
+import org.DynamicTopHolograms.dynamicTopHolograms.scheduler.UpdateCycleExecutor;
 
 import eu.decentsoftware.holograms.api.DHAPI;
 import eu.decentsoftware.holograms.api.holograms.Hologram;
-import me.clip.placeholderapi.PlaceholderAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
 import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.entity.Player;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.bukkit.ChatColor.*;
 
 public class RankingHologramManager {
+    private static final String EMPTY_RANKING_LINE = translateAlternateColorCodes('&', "&7Ninguém no ranking ainda.");
+    private static final LineTemplate PAGE_FOOTER = LineTemplate.compile("&7Página {page}/{pages} &8(clique para trocar)",
+            "{page}", "{pages}");
+    // Linha resolvida por jogador pelo DecentHolograms, através da expansão do PlaceholderAPI
+    private static final String VIEWER_LINE_PLACEHOLDER = "%dth_viewer_{id}%";
+
     private final DatabaseConnectorManager databaseConnectorManager;
 
     private final DynamicTopHolograms plugin;
     private final ConfigManager configManager;
     private final OfflineDataManager offlineDataManager;
-    // Mapeia hologramID para suas configurações. Poderia ser uma classe dedicada
-    // HologramConfig.
-    // Mas fiquei com preguiça de fazer -- NetoTTT
-    private final Map<String, Map<String, Object>> activeHologramConfigs = new ConcurrentHashMap<>();
+    // Mapeia hologramID para sua configuração. As configurações são imutáveis e trocadas por inteiro
+    private final Map<String, HologramConfig> activeHologramConfigs = new ConcurrentHashMap<>();
+    private final HologramRenderer renderer = new HologramRenderer();
+    private final RenderQueue renderQueue;
+    private final UpdateCycleExecutor cycleExecutor;
+    private final ForcedUpdateCoalescer forcedUpdates;
+    private final AtomicLong generationCounter = new AtomicLong();
+    // Impressão digital do último conteúdo enviado para renderização e renderizações puladas, por holograma
+    private final Map<String, Long> renderedFingerprints = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> skippedRenders = new ConcurrentHashMap<>();
+    // Páginas carregadas sob demanda dos hologramas divididos em páginas
+    private final Map<String, PageCache> pageCaches = new ConcurrentHashMap<>();
+    private final UpdateMetrics metrics = new UpdateMetrics();
+    private final PlaceholderSampler sampler;
 
     // Construtor
     public RankingHologramManager(DynamicTopHolograms plugin, ConfigManager configManager,
@@ -34,31 +67,47 @@ public class RankingHologramManager {
         this.configManager = configManager;
         this.offlineDataManager = offlineDataManager;
         this.databaseConnectorManager = databaseConnectorManager;
+        this.renderQueue = new RenderQueue(plugin, renderer, metrics, this::onHologramMissing);
+        this.cycleExecutor = new UpdateCycleExecutor(plugin);
+        this.forcedUpdates = new ForcedUpdateCoalescer(plugin, this::updateHologram);
+        this.sampler = new PlaceholderSampler(plugin, this::getTrackedPlaceholders, this::onSampled);
     }
 
     public void loadHologramsFromConfig() {
         activeHologramConfigs.clear();
+        renderer.clear();
+        renderedFingerprints.clear();
+        metrics.clear();
+        sampler.clearUnparsedCounts();
+        sampler.getCache().load(configManager.getConfig().getConfigurationSection("placeholder-cache"));
+        if (plugin.getActivityTracker() != null) {
+            plugin.getActivityTracker().clear();
+        }
+        if (plugin.getViewerRankCache() != null) {
+            plugin.getViewerRankCache().clear();
+        }
         Set<String> hologramIDs = configManager.getAllHologramIDs();
 
         for (String id : hologramIDs) {
-            Map<String, Object> config = new HashMap<>();
-
-            // Verificar tipo de fonte de dados
+            // Verificar tipo de fonte de dados ("papi" ou "db:<conector>:<campo>")
             String dataSource = configManager.getHolograms().getString(id + ".dataSource", "papi");
-            config.put("dataSource", dataSource);
-
-            if ("papi".equals(dataSource)) {
-                // Configuração para PlaceholderAPI
-                config.put("placeholder", configManager.getHolograms().getString(id + ".placeholder"));
-            } else if (dataSource.startsWith("db:")) {
-                // Configuração já está no dataSource
+            HologramConfig config = new HologramConfig(dataSource,
+                    configManager.getHolograms().getString(id + ".placeholder"),
+                    configManager.getHolograms().getInt(id + ".topN"),
+                    configManager.getHolograms().getString(id + ".title", HologramConfig.DEFAULT_TITLE),
+                    configManager.getHolograms().getString(id + ".format", HologramConfig.DEFAULT_FORMAT),
+                    configManager.getHolograms().getBoolean(id + ".ascending", false),
+                    configManager.getHolograms().getLong(id + ".update-interval-minutes", 0),
+                    configManager.getHolograms().getString(id + ".value-format"),
+                    configManager.getHolograms().getInt(id + ".page-size", 0),
+                    configManager.getHolograms().getString(id + ".viewer-line"));
+            if (config.getSourceType() == HologramConfig.SourceType.INVALID) {
+                plugin.getLogger().warning("Formato de fonte de dados inválido no holograma " + id + ": " + dataSource);
+            }
+            if (ValueFormatter.parse(config.getValueFormat()) == null) {
+                plugin.getLogger().warning("value-format inválido no holograma " + id + ": " + config.getValueFormat()
+                        + ". Usando o formato padrão.");
             }
-
-            config.put("topN", configManager.getHolograms().getInt(id + ".topN"));
-            config.put("title", configManager.getHolograms().getString(id + ".title", "&6&lTop {placeholder_name}"));
-            config.put("format",
-                    configManager.getHolograms().getString(id + ".format", "&e{rank}. &f{player} &7- &a{value}"));
-            config.put("ascending", configManager.getHolograms().getBoolean(id + ".ascending", false));
 
             // Verificar se precisamos recriar o holograma físico
             if (DHAPI.getHologram(id) == null) {
@@ -74,7 +123,7 @@ public class RankingHologramManager {
                         if (world != null) {
                             Location location = new Location(world, x, y, z);
                             List<String> initialLines = new ArrayList<>();
-                            initialLines.add(translateAlternateColorCodes('&', (String) config.get("title")));
+                            initialLines.add(translateAlternateColorCodes('&', config.getTitle()));
                             initialLines.add(translateAlternateColorCodes('&', "&7Carregando..."));
 
                             DHAPI.createHologram(id, location, initialLines);
@@ -93,6 +142,28 @@ public class RankingHologramManager {
             activeHologramConfigs.put(id, config);
             plugin.getLogger().info("Carregado holograma de ranking: " + id);
         }
+
+        // Valores amostrados de placeholders que saíram da configuração não são mais lidos
+        sampler.retain(getTrackedPlaceholders());
+    }
+
+    // Placeholders do PAPI em uso por algum holograma
+    private Set<String> getTrackedPlaceholders() {
+        Set<String> placeholders = new HashSet<>();
+        for (HologramConfig config : activeHologramConfigs.values()) {
+            if (config.isPapi() && config.getPlaceholder() != null) {
+                placeholders.add(config.getPlaceholder());
+            }
+        }
+        return placeholders;
+    }
+
+    // Cada valor resolvido pelo amostrador (varredura ou evento de jogador) alimenta os dados offline
+    private void onSampled(String placeholder, SampledValue sampled) {
+        if (configManager.isOfflineDataEnabled()) {
+            // Alimenta o índice ordenado do placeholder (O(log n) por jogador)
+            offlineDataManager.updatePlayerData(sampled.getUuid(), sampled.getName(), placeholder, sampled.getValue());
+        }
     }
 
     public boolean createHologram(String id, Location location, String title) {
@@ -108,22 +179,16 @@ public class RankingHologramManager {
         if (hologram != null) {
             // Adicionar configuração inicial para o holograma
             // Gambiarra mal feita pra salvar o Holograma sem configuração -- NetoTTT
-            Map<String, Object> config = new HashMap<>();
-            config.put("placeholder", "%player_name%"); // Placeholder padrão temporário
-            config.put("topN", 10); // Valor padrão temporário
-            config.put("title", title);
-            config.put("format", "&e{rank}. &f{player} &7- &a{value}");
-            config.put("ascending", false);
+            // Placeholder e topN padrão temporários
+            HologramConfig config = HologramConfig.papi("%player_name%", 10, title, HologramConfig.DEFAULT_FORMAT,
+                    false);
 
             // Registrar no mapa de configurações ativas
             activeHologramConfigs.put(id, config);
 
             // Salvar na configuração (incluindo localização)
-            configManager.saveHologramSetting(id, (String) config.get("placeholder"),
-                    (int) config.get("topN"),
-                    (String) config.get("title"),
-                    (String) config.get("format"),
-                    (boolean) config.get("ascending"));
+            configManager.saveHologramSetting(id, config.getPlaceholder(), config.getTopN(), config.getTitle(),
+                    config.getFormat(), config.isAscending());
 
             // Salvar a localização do holograma
             configManager.saveHologramLocation(id, location);
@@ -149,6 +214,9 @@ public class RankingHologramManager {
 
         // Mover o holograma usando a API DecentHolograms
         DHAPI.moveHologram(hologram, location);
+        if (plugin.getActivityTracker() != null) {
+            plugin.getActivityTracker().forget(id);
+        }
 
         // Salvar a nova localização na configuração
         configManager.saveHologramLocation(id, location);
@@ -158,46 +226,46 @@ public class RankingHologramManager {
 
     public void setHologramConfig(String id, String placeholder, int topN, String title, String format,
             boolean ascending) {
-        Map<String, Object> config = new HashMap<>();
-        config.put("placeholder", placeholder);
-        config.put("topN", topN);
-        config.put("title", title);
-        config.put("format", format);
-        config.put("ascending", ascending);
-        activeHologramConfigs.put(id, config);
+        activeHologramConfigs.put(id,
+                keepHologramOptions(id, HologramConfig.papi(placeholder, topN, title, format, ascending)));
         configManager.saveHologramSetting(id, placeholder, topN, title, format, ascending);
         plugin.getLogger().info("Configurado holograma '" + id + "' para PAPI: " + placeholder + ", Top: " + topN);
         forceUpdateHologram(id); // Atualiza imediatamente após setar
     }
 
     public void setHologramTitle(String id, String title) {
-        Map<String, Object> config = activeHologramConfigs.get(id);
+        HologramConfig config = activeHologramConfigs.computeIfPresent(id, (k, current) -> current.withTitle(title));
         if (config != null) {
-            config.put("title", title);
-            String placeholder = (String) config.get("placeholder");
-            int topN = (int) config.get("topN");
-            String format = (String) config.get("format");
-            boolean ascending = config.containsKey("ascending") ? (boolean) config.get("ascending") : false;
-            configManager.saveHologramSetting(id, placeholder, topN, title, format, ascending);
+            configManager.saveHologramSetting(id, config.getPlaceholder(), config.getTopN(), title,
+                    config.getFormat(), config.isAscending());
             forceUpdateHologram(id);
         }
     }
 
     public void setHologramOrder(String id, boolean ascending) {
-        Map<String, Object> config = activeHologramConfigs.get(id);
+        HologramConfig config = activeHologramConfigs.computeIfPresent(id,
+                (k, current) -> current.withAscending(ascending));
         if (config != null) {
-            config.put("ascending", ascending);
-            String placeholder = (String) config.get("placeholder");
-            int topN = (int) config.get("topN");
-            String title = (String) config.get("title");
-            String format = (String) config.get("format");
-            configManager.saveHologramSetting(id, placeholder, topN, title, format, ascending);
+            configManager.saveHologramSetting(id, config.getPlaceholder(), config.getTopN(), config.getTitle(),
+                    config.getFormat(), ascending);
             forceUpdateHologram(id);
         }
     }
 
     public void removeHologram(String id, boolean deleteFromDH) {
         activeHologramConfigs.remove(id);
+        renderQueue.discard(id);
+        renderer.invalidate(id);
+        renderedFingerprints.remove(id);
+        skippedRenders.remove(id);
+        pageCaches.remove(id);
+        metrics.forget(id);
+        if (plugin.getActivityTracker() != null) {
+            plugin.getActivityTracker().forget(id);
+        }
+        if (plugin.getViewerRankCache() != null) {
+            plugin.getViewerRankCache().invalidate(id);
+        }
         configManager.removeHologramSetting(id);
         if (deleteFromDH) {
             Hologram hologram = DHAPI.getHologram(id);
@@ -210,175 +278,344 @@ public class RankingHologramManager {
 
     public void updateAllHolograms() {
         plugin.getLogger().info("Iniciando atualização de todos os hologramas de ranking...");
-        for (String id : activeHologramConfigs.keySet()) {
-            updateHologram(id);
+        long start = System.nanoTime();
+        updateHolograms(activeHologramConfigs.keySet()).thenRun(() -> plugin.getLogger().info(
+                "Atualização de todos os hologramas concluída em " + (System.nanoTime() - start) / 1_000_000
+                        + " ms. Detalhes em /dth stats."));
+    }
+
+    /**
+     * Atualiza um conjunto de hologramas (usado pelo agendador para os hologramas vencidos).
+     * Hologramas com a mesma fonte de dados e a mesma ordem compartilham uma única consulta,
+     * feita com o maior topN do grupo. Os placeholders distintos de todos os grupos são resolvidos
+     * em uma única varredura, que visita cada jogador online uma vez.
+     *
+     * @param hologramIDs IDs dos hologramas a atualizar
+     */
+    public CompletableFuture<Void> updateHolograms(Collection<String> hologramIDs) {
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (String id : hologramIDs) {
+            if (!activeHologramConfigs.containsKey(id)) {
+                plugin.getLogger()
+                        .warning("Configuração não encontrada para o holograma: " + id + " durante a atualização.");
+                continue;
+            }
+            groups.computeIfAbsent(getSourceKey(id), k -> new ArrayList<>()).add(id);
+        }
+
+        Set<String> placeholders = new LinkedHashSet<>();
+        for (List<String> ids : groups.values()) {
+            HologramConfig first = activeHologramConfigs.get(ids.get(0));
+            if (first != null && first.isPapi() && first.getPlaceholder() != null) {
+                placeholders.add(first.getPlaceholder());
+            }
+        }
+        CompletableFuture<Map<String, List<SampledValue>>> sweep = placeholders.isEmpty() ? null
+                : sampler.sample(placeholders);
+
+        // Cada grupo é consultado em paralelo; os resultados são renderizados conforme chegam
+        List<UpdateCycleExecutor.Task> tasks = new ArrayList<>();
+        for (Map.Entry<String, List<String>> group : groups.entrySet()) {
+            List<String> ids = group.getValue();
+            HologramConfig first = activeHologramConfigs.get(ids.get(0));
+            String connectorKey = first != null ? first.getConnectorKey() : "papi";
+            tasks.add(new UpdateCycleExecutor.Task(group.getKey(), connectorKey, () -> updateGroup(ids, sweep)));
         }
-        plugin.getLogger().info("Atualização de hologramas concluída.");
+        return cycleExecutor.runCycle(tasks);
     }
 
     public void forceUpdateHologram(String id) {
         if (activeHologramConfigs.containsKey(id)) {
             plugin.getLogger().info("Forçando atualização para o holograma: " + id);
-            // Executar em uma nova thread para não bloquear quem chamou (ex: comando)
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> updateHologram(id));
+            // Uma atualização forçada sempre reescreve o holograma, mesmo sem mudanças no ranking
+            renderedFingerprints.remove(id);
+            if (plugin.getViewerRankCache() != null) {
+                plugin.getViewerRankCache().invalidate(id);
+            }
+            // Pedidos seguidos (ex: vários comandos de edição) viram uma única atualização
+            forcedUpdates.request(id);
         } else {
             plugin.getLogger().warning("Tentativa de forçar atualização para holograma desconhecido: " + id);
         }
     }
 
-    void updateHologram(String hologramID) {
-        Map<String, Object> config = activeHologramConfigs.get(hologramID);
-        if (config == null) {
-            plugin.getLogger()
-                    .warning("Configuração não encontrada para o holograma: " + hologramID + " durante a atualização.");
+    CompletableFuture<Void> updateHologram(String hologramID) {
+        return updateHolograms(Collections.singletonList(hologramID));
+    }
+
+    /**
+     * Obtém a chave que identifica a consulta de um holograma (fonte de dados + ordem).
+     * Hologramas com a mesma chave podem compartilhar o mesmo resultado.
+     *
+     * @param id ID do holograma
+     * @return chave da fonte, ou null se o holograma não estiver configurado
+     */
+    public String getSourceKey(String id) {
+        HologramConfig config = activeHologramConfigs.get(id);
+        return config != null ? config.getSourceKey() : null;
+    }
+
+    private void updateGroup(List<String> hologramIDs, CompletableFuture<Map<String, List<SampledValue>>> sweep) {
+        // Todos os hologramas do grupo têm a mesma fonte e ordem; o limite é o maior topN.
+        // Cada configuração é lida uma única vez, para que consulta e renderização usem a mesma versão
+        Map<String, HologramConfig> configs = new LinkedHashMap<>();
+        int limit = 0;
+        for (String id : hologramIDs) {
+            HologramConfig config = activeHologramConfigs.get(id);
+            if (config != null) {
+                configs.put(id, config);
+                // Hologramas com páginas consultam só a primeira; as demais são carregadas quando abertas
+                limit = Math.max(limit, config.getFirstPageSize());
+            }
+        }
+        if (configs.isEmpty()) {
             return;
         }
 
-        Hologram hologram = DHAPI.getHologram(hologramID);
-        if (hologram == null) {
-            plugin.getLogger().warning("Holograma DecentHolograms '" + hologramID
-                    + "' não encontrado. Removendo da lista de atualização.");
-            activeHologramConfigs.remove(hologramID); // Auto-limpeza
-            configManager.removeHologramSetting(hologramID);
-            return;
+        // Geração tomada antes da consulta: um resultado que chegar depois de outro mais novo é descartado
+        long generation = generationCounter.incrementAndGet();
+        HologramConfig source = configs.values().iterator().next();
+        FetchTimings timings = new FetchTimings();
+        LeaderboardSnapshot snapshot;
+        try {
+            snapshot = fetchSnapshot(source, limit, timings, sweep);
+        } catch (RuntimeException e) {
+            // Uma consulta só para o conector; cada holograma do grupo conta a sua falha
+            metrics.recordFetchError(source.getConnectorKey());
+            for (String id : configs.keySet()) {
+                metrics.recordError(id);
+            }
+            throw e;
         }
 
-        String dataSource = (String) config.getOrDefault("dataSource", "papi");
-        int topN = (int) config.get("topN");
-        String titleTemplate = (String) config.get("title");
-        String lineFormat = (String) config.get("format");
-        boolean ascending = config.containsKey("ascending") ? (boolean) config.get("ascending") : false;
+        int entries = snapshot.getEntries().size();
+        metrics.recordFetch(source.getConnectorKey(), timings.fetchNanos, timings.selectNanos, entries);
+        for (Map.Entry<String, HologramConfig> entry : configs.entrySet()) {
+            metrics.recordUpdate(entry.getKey(), timings.fetchNanos, timings.selectNanos, entries);
+            renderHologram(entry.getKey(), entry.getValue(), snapshot, generation);
+        }
+    }
 
+    private LeaderboardSnapshot fetchSnapshot(HologramConfig source, int limit) {
+        return fetchSnapshot(source, limit, new FetchTimings(), null);
+    }
+
+    /**
+     * @param sweep varredura de placeholders do ciclo, ou null para pedir uma só deste placeholder
+     */
+    private LeaderboardSnapshot fetchSnapshot(HologramConfig source, int limit, FetchTimings timings,
+            CompletableFuture<Map<String, List<SampledValue>>> sweep) {
         List<PlayerDataEntry> playerData = new ArrayList<>();
+        boolean ascending = source.isAscending();
+        long start = System.nanoTime();
 
         // Obter dados com base na fonte de dados configurada
-        if ("papi".equals(dataSource)) {
-            // Código existente para PlaceholderAPI
-            String papiPlaceholder = (String) config.get("placeholder");
-
-            // Coletar dados de jogadores online
-            for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
-                String valueStr = PlaceholderAPI.setPlaceholders(onlinePlayer, papiPlaceholder);
-                try {
-                    double value = Double.parseDouble(valueStr);
-                    playerData.add(new PlayerDataEntry(onlinePlayer, value, ascending));
-
-                    // Se offline data estiver habilitado, atualizar os dados do jogador
-                    if (configManager.isOfflineDataEnabled()) {
-                        offlineDataManager.updatePlayerData(onlinePlayer, papiPlaceholder, value);
-                    }
-                } catch (NumberFormatException e) {
-                    // Ignorar valores não numéricos
+        if (source.getSourceType() == HologramConfig.SourceType.PAPI) {
+            String papiPlaceholder = source.getPlaceholder();
+            boolean offlineData = configManager.isOfflineDataEnabled();
+            // Valores dos jogadores online, resolvidos na thread principal pelo amostrador.
+            // Com dados offline, cada valor já foi registrado no índice ordenado (ver onSampled)
+            List<SampledValue> sampledValues = awaitSample(papiPlaceholder, sweep);
+            if (!offlineData) {
+                for (SampledValue sampled : sampledValues) {
+                    playerData.add(new PlayerDataEntry(sampled.getUuid(), sampled.getName(), sampled.getValue(),
+                            ascending));
                 }
             }
 
-            // Se offline data estiver habilitado, adicionar jogadores offline
-            if (configManager.isOfflineDataEnabled()) {
-                List<PlayerDataEntry> offlineEntries = offlineDataManager.getTopPlayers(papiPlaceholder, topN,
-                        ascending);
-
-                // Filtrar para remover duplicatas (jogadores que já estão online)
-                Set<UUID> onlineUUIDs = new HashSet<>();
-                for (PlayerDataEntry entry : playerData) {
-                    onlineUUIDs.add(entry.getPlayerUUID());
-                }
-
-                for (PlayerDataEntry offlineEntry : offlineEntries) {
-                    if (!onlineUUIDs.contains(offlineEntry.getPlayerUUID())) {
-                        playerData.add(offlineEntry);
-                    }
-                }
+            // Com dados offline, o índice já contém online e offline, ordenados e sem duplicatas
+            if (offlineData) {
+                long selectStart = System.nanoTime();
+                List<PlayerDataEntry> ranked = offlineDataManager.getTopPlayers(papiPlaceholder, limit, ascending);
+                timings.fetchNanos = selectStart - start;
+                timings.selectNanos = System.nanoTime() - selectStart;
+                return new LeaderboardSnapshot(source.getSourceKey(), ascending, ranked);
             }
-        } else if (dataSource.startsWith("db:")) {
-            // Fonte de dados de banco de dados externo
-            // Corrigido para lidar com múltiplos ":" no campo
-            String dbInfo = dataSource.substring(3); // Remove "db:"
-            int firstColonIndex = dbInfo.indexOf(':');
-
-            if (firstColonIndex > 0) {
-                String connectorName = dbInfo.substring(0, firstColonIndex);
-                String field = dbInfo.substring(firstColonIndex + 1);
-
-                // Obter dados do banco de dados
-                playerData = databaseConnectorManager.getTopPlayersFromDatabase(connectorName, field, topN, ascending);
-
-                if (playerData.isEmpty() && plugin.getConfig().getBoolean("debug-mode", false)) {
-                    plugin.getLogger().warning("Nenhum dado encontrado para o conector '" + connectorName +
-                            "' e campo '" + field + "'. Verifique a configuração do banco de dados.");
-                }
-            } else {
-                plugin.getLogger().warning("Formato de fonte de dados inválido: " + dataSource);
+        } else if (source.getSourceType() == HologramConfig.SourceType.DATABASE) {
+            // Obter dados do banco de dados externo
+            playerData = databaseConnectorManager.getTopPlayersFromDatabase(source.getConnectorName(),
+                    source.getField(), limit, ascending);
+
+            if (playerData.isEmpty() && plugin.getConfig().getBoolean("debug-mode", false)) {
+                plugin.getLogger().warning("Nenhum dado encontrado para o conector '" + source.getConnectorName() +
+                        "' e campo '" + source.getField() + "'. Verifique a configuração do banco de dados.");
             }
+        } else {
+            plugin.getLogger().warning("Formato de fonte de dados inválido: " + source.getDataSource());
         }
 
-        Collections.sort(playerData); // Usa o compareTo para ordenar
+        // Seleciona só as primeiras posições (usa o compareTo), sem ordenar a lista inteira
+        long selectStart = System.nanoTime();
+        playerData = TopKSelector.select(playerData, limit);
+        timings.fetchNanos = selectStart - start;
+        timings.selectNanos = System.nanoTime() - selectStart;
 
-        // Obter nome amigável do placeholder ou campo
-        String placeholderFriendlyName;
-        if ("papi".equals(dataSource)) {
-            String papiPlaceholder = (String) config.get("placeholder");
-            placeholderFriendlyName = papiPlaceholder.replace("%", "").replace("_", " ");
+        return new LeaderboardSnapshot(source.getSourceKey(), ascending, playerData);
+    }
+
+    private void renderHologram(String hologramID, HologramConfig config, LeaderboardSnapshot snapshot,
+            long generation) {
+        String placeholderFriendlyName = getFriendlyName(config);
+        int pageCount = config.getPageCount();
+        List<PlayerDataEntry> firstPage = snapshot.slice(config.getFirstPageSize());
+
+        if (pageCount > 1) {
+            // As demais páginas ficam desatualizadas; as que foram abertas recentemente são recarregadas
+            PageCache cache = pageCaches.computeIfAbsent(hologramID, k -> new PageCache());
+            for (int page : cache.reset(firstPage)) {
+                requestPage(hologramID, page, false);
+            }
         } else {
-            // Para fonte de dados de banco de dados, tentar obter o nome amigável
-            try {
-                String dbInfo = dataSource.substring(3); // Remove "db:"
-                int firstColonIndex = dbInfo.indexOf(':');
+            pageCaches.remove(hologramID);
+        }
 
-                if (firstColonIndex > 0) {
-                    String connectorName = dbInfo.substring(0, firstColonIndex);
-                    String field = dbInfo.substring(firstColonIndex + 1);
+        // Mesmo ranking, mesma configuração e mesmo título: nada a renderizar
+        long fingerprint = snapshot.fingerprint(config.getFirstPageSize(), config.getVersion(),
+                placeholderFriendlyName.hashCode(), pageCount);
+        Long previous = renderedFingerprints.get(hologramID);
+        if (previous != null && previous == fingerprint) {
+            skippedRenders.computeIfAbsent(hologramID, k -> new LongAdder()).increment();
+            return;
+        }
 
-                    // Tentar obter o nome amigável do conector
-                    placeholderFriendlyName = databaseConnectorManager.getFriendlyFieldName(connectorName, field);
-                } else {
-                    placeholderFriendlyName = dataSource.replace("db:", "").replace(":", " - ").replace("_", " ");
-                }
+        List<String> lines = buildPageLines(hologramID, config, placeholderFriendlyName, firstPage, 0);
+
+        // A aplicação no holograma é feita pela fila de renderização, na thread principal
+        if (renderQueue.submit(hologramID, 0, pageCount, generation, lines)) {
+            renderedFingerprints.put(hologramID, fingerprint);
+        }
+    }
+
+    // Nome amigável do placeholder ou campo, usado no título
+    private String getFriendlyName(HologramConfig config) {
+        if (config.getSourceType() == HologramConfig.SourceType.PAPI) {
+            return String.valueOf(config.getPlaceholder()).replace("%", "").replace("_", " ");
+        }
+        String fallbackName = config.getDataSource().replace("db:", "").replace(":", " - ").replace("_", " ");
+        if (config.getSourceType() == HologramConfig.SourceType.DATABASE) {
+            // Para fonte de dados de banco de dados, tentar obter o nome amigável do conector
+            try {
+                return databaseConnectorManager.getFriendlyFieldName(config.getConnectorName(), config.getField());
             } catch (Exception e) {
-                placeholderFriendlyName = dataSource.replace("db:", "").replace(":", " - ").replace("_", " ");
+                return fallbackName;
             }
         }
+        return fallbackName;
+    }
 
-        String actualTitle = titleTemplate.replace("{placeholder_name}", placeholderFriendlyName);
-
-        // Criar uma cópia final da lista de jogadores para usar na lambda
-        final List<PlayerDataEntry> finalPlayerData = new ArrayList<>(playerData);
+    // Monta as linhas de uma página fora da thread principal; apenas a aplicação no holograma é síncrona
+    private List<String> buildPageLines(String hologramID, HologramConfig config, String placeholderFriendlyName,
+            List<PlayerDataEntry> playerData, int page) {
+        List<String> lines = new ArrayList<>();
+        lines.add(config.getTitleTemplate().apply(placeholderFriendlyName));
 
-        // Atualiza o conteúdo do holograma (precisa ser feito na thread principal se a
-        // API DH não for thread-safe para modificações)
-        Bukkit.getScheduler().runTask(plugin, () -> {
-            // Limpa linhas antigas, exceto o título
-            while (hologram.getPage(0).getLines().size() > 1) {
-                hologram.getPage(0).removeLine(1); // Remove a segunda linha repetidamente
+        if (playerData.isEmpty()) {
+            lines.add(EMPTY_RANKING_LINE);
+        } else {
+            LineTemplate lineTemplate = config.getLineTemplate();
+            ValueFormatter valueFormatter = config.getValueFormatter();
+            int firstRank = page * config.getPageSize() + 1;
+            String[] values = new String[3];
+            for (int i = 0; i < playerData.size(); i++) {
+                PlayerDataEntry entry = playerData.get(i);
+                values[HologramConfig.VAR_RANK] = String.valueOf(firstRank + i);
+                values[HologramConfig.VAR_PLAYER] = entry.getPlayerName();
+                values[HologramConfig.VAR_VALUE] = valueFormatter.format(entry.getValue());
+                lines.add(lineTemplate.apply(values));
             }
+        }
 
-            // Usar DHAPI para definir as linhas
-            DHAPI.setHologramLine(hologram, 0, translateAlternateColorCodes('&', actualTitle));
+        if (config.hasViewerLine()) {
+            lines.add(VIEWER_LINE_PLACEHOLDER.replace("{id}", hologramID));
+        }
+        if (config.getPageCount() > 1) {
+            lines.add(PAGE_FOOTER.apply(String.valueOf(page + 1), String.valueOf(config.getPageCount())));
+        }
+        return lines;
+    }
 
-            if (finalPlayerData.isEmpty()) {
-                DHAPI.addHologramLine(hologram, translateAlternateColorCodes('&', "&7Ninguém no ranking ainda."));
+    /**
+     * Carrega uma página de um holograma dividido em páginas, caso ela ainda não esteja atualizada.
+     * Chamado quando um jogador abre a página; a consulta é feita fora da thread principal.
+     *
+     * @param id   ID do holograma
+     * @param page índice da página (a primeira, 0, é sempre atualizada pelo agendador)
+     */
+    public void requestPage(String id, int page) {
+        requestPage(id, page, true);
+    }
+
+    private void requestPage(String id, int page, boolean byViewer) {
+        HologramConfig config = activeHologramConfigs.get(id);
+        PageCache cache = pageCaches.get(id);
+        if (config == null || cache == null || page <= 0 || page >= config.getPageCount()) {
+            return;
+        }
+        int cycle = cache.startLoading(page, byViewer);
+        if (cycle < 0) {
+            return; // Já atualizada ou sendo carregada
+        }
+
+        UpdateCycleExecutor.Task task = new UpdateCycleExecutor.Task(id + " (página " + (page + 1) + ")",
+                config.getConnectorKey(), () -> loadPage(id, config, cache, page, cycle));
+        cycleExecutor.runCycle(Collections.singletonList(task))
+                .whenComplete((result, error) -> cache.finishLoading(page));
+    }
+
+    private void loadPage(String hologramID, HologramConfig config, PageCache cache, int page, int cycle) {
+        long generation = generationCounter.incrementAndGet();
+        List<PlayerDataEntry> entries = fetchPage(config, cache, page, cycle);
+        List<String> lines = buildPageLines(hologramID, config, getFriendlyName(config), entries, page);
+        renderQueue.submit(hologramID, page, config.getPageCount(), generation, lines);
+    }
+
+    private List<PlayerDataEntry> fetchPage(HologramConfig config, PageCache cache, int page, int cycle) {
+        int offset = page * config.getPageSize();
+        int count = Math.min(config.getPageSize(), config.getTopN() - offset);
+        List<PlayerDataEntry> entries;
+
+        if (config.getSourceType() == HologramConfig.SourceType.DATABASE && page == 0) {
+            entries = databaseConnectorManager.getPageFromDatabase(config.getConnectorName(), config.getField(),
+                    count, config.isAscending(), null, 0);
+        } else if (config.getSourceType() == HologramConfig.SourceType.DATABASE) {
+            // Paginação por chave: continua a partir da última posição da página anterior
+            List<PlayerDataEntry> previous = cache.get(page - 1, cycle);
+            if (previous == null) {
+                previous = fetchPage(config, cache, page - 1, cycle);
+            }
+            if (previous.size() < config.getPageSize()) {
+                entries = new ArrayList<>(); // O ranking acabou antes desta página
             } else {
-                for (int i = 0; i < Math.min(finalPlayerData.size(), topN); i++) {
-                    PlayerDataEntry entry = finalPlayerData.get(i);
-                    String formattedLine = lineFormat
-                            .replace("{rank}", String.valueOf(i + 1))
-                            .replace("{player}", entry.getPlayerName())
-                            .replace("{value}", String.format("%,.0f", entry.getValue())); // Formata número
-                    DHAPI.addHologramLine(hologram, translateAlternateColorCodes('&', formattedLine));
-                }
+                entries = databaseConnectorManager.getPageFromDatabase(config.getConnectorName(), config.getField(),
+                        count, config.isAscending(), previous.get(previous.size() - 1), offset);
             }
-        });
+        } else {
+            List<PlayerDataEntry> ranked = config.isPapi() && configManager.isOfflineDataEnabled()
+                    ? offlineDataManager.getTopPlayers(config.getPlaceholder(), offset + count, config.isAscending())
+                    : fetchSnapshot(config, offset + count).getEntries();
+            entries = ranked.size() > offset ? new ArrayList<>(ranked.subList(offset, ranked.size()))
+                    : new ArrayList<>();
+        }
+
+        cache.store(page, cycle, entries);
+        return entries;
+    }
+
+    // Chamado pela fila de renderização (thread principal) quando o holograma sumiu do DecentHolograms
+    private void onHologramMissing(String hologramID) {
+        plugin.getLogger().warning("Holograma DecentHolograms '" + hologramID
+                + "' não encontrado. Removendo da lista de atualização.");
+        activeHologramConfigs.remove(hologramID); // Auto-limpeza
+        renderedFingerprints.remove(hologramID);
+        pageCaches.remove(hologramID);
+        configManager.removeHologramSetting(hologramID);
     }
 
     public void setHologramDatabaseSource(String id, String connectorName, String field, int topN, String title,
             String format, boolean ascending) {
         // Armazenar a fonte de dados no formato correto
-        Map<String, Object> config = new HashMap<>();
-        config.put("dataSource", "db:" + connectorName + ":" + field);
-        config.put("topN", topN);
-        config.put("title", title);
-        config.put("format", format);
-        config.put("ascending", ascending);
-        activeHologramConfigs.put(id, config);
+        activeHologramConfigs.put(id,
+                keepHologramOptions(id, HologramConfig.database(connectorName, field, topN, title, format, ascending)));
 
         // Salvar na configuração
         configManager.saveHologramDatabaseSource(id, connectorName, field, topN, title, format, ascending);
@@ -394,15 +631,217 @@ public class RankingHologramManager {
         forceUpdateHologram(id); // Atualiza imediatamente após setar
     }
 
+    /**
+     * Obtém o intervalo de atualização de um holograma
+     *
+     * @param id ID do holograma
+     * @return intervalo em minutos (o do holograma, ou o global do config.yml)
+     */
+    public long getUpdateIntervalMinutes(String id) {
+        HologramConfig config = activeHologramConfigs.get(id);
+        if (config != null && config.getUpdateIntervalMinutes() > 0) {
+            return config.getUpdateIntervalMinutes();
+        }
+        return Math.max(1, configManager.getUpdateIntervalMinutes());
+    }
+
+    /**
+     * Consulta a posição de um jogador sem bloquear quem chamou. A consulta passa pelos mesmos
+     * limites de concorrência das atualizações (global e do conector do holograma).
+     *
+     * @param id         ID do holograma
+     * @param playerUUID UUID do jogador
+     * @return posição e valor do jogador; null se ele não estiver no ranking ou a consulta falhar
+     */
+    public CompletableFuture<PlayerRank> lookupRankAsync(String id, UUID playerUUID) {
+        CompletableFuture<PlayerRank> result = new CompletableFuture<>();
+        HologramConfig config = activeHologramConfigs.get(id);
+        if (config == null) {
+            result.complete(null);
+            return result;
+        }
+
+        UpdateCycleExecutor.Task task = new UpdateCycleExecutor.Task(id + " (posição do jogador)",
+                config.getConnectorKey(), () -> result.complete(lookupRank(id, playerUUID)));
+        // Sem resultado se a consulta falhou ou não começou dentro do prazo
+        cycleExecutor.runCycle(Collections.singletonList(task))
+                .whenComplete((done, error) -> result.complete(null));
+        return result;
+    }
+
+    /**
+     * Consulta a posição de um jogador no ranking de um holograma. Pode bloquear (consulta ao banco
+     * de dados); deve ser chamado fora da thread principal.
+     *
+     * @param id         ID do holograma
+     * @param playerUUID UUID do jogador
+     * @return posição e valor do jogador, ou null se ele não estiver no ranking
+     */
+    public PlayerRank lookupRank(String id, UUID playerUUID) {
+        HologramConfig config = activeHologramConfigs.get(id);
+        if (config == null) {
+            return null;
+        }
+
+        if (config.getSourceType() == HologramConfig.SourceType.DATABASE) {
+            // Uma busca pelo valor e uma contagem, usando o índice da coluna no banco
+            return databaseConnectorManager.getPlayerRankFromDatabase(config.getConnectorName(), config.getField(),
+                    playerUUID, config.isAscending());
+        }
+        if (config.getSourceType() != HologramConfig.SourceType.PAPI) {
+            return null;
+        }
+        if (configManager.isOfflineDataEnabled()) {
+            // Posição direta no índice ordenado, em O(log n)
+            return offlineDataManager.getRank(config.getPlaceholder(), playerUUID, config.isAscending());
+        }
+
+        // Sem dados offline o ranking só tem os jogadores online, com os valores da última amostragem
+        Map<UUID, SampledValue> values = sampler.getValues(config.getPlaceholder());
+        if (!values.containsKey(playerUUID)) {
+            awaitSample(config.getPlaceholder(), null);
+            values = sampler.getValues(config.getPlaceholder());
+        }
+        SampledValue viewer = values.get(playerUUID);
+        if (viewer == null) {
+            return null;
+        }
+        int ahead = 0;
+        for (SampledValue sampled : values.values()) {
+            if (config.isAscending() ? sampled.getValue() < viewer.getValue() : sampled.getValue() > viewer.getValue()) {
+                ahead++;
+            }
+        }
+        return new PlayerRank(ahead + 1, viewer.getValue());
+    }
+
+    // Espera a varredura de um placeholder; nunca chamar na thread principal, que é quem a executa
+    private List<SampledValue> awaitSample(String placeholder,
+            CompletableFuture<Map<String, List<SampledValue>>> sweep) {
+        long timeoutSeconds = Math.max(1, plugin.getConfigManager().getConfig().getLong("update-cycle.deadline-seconds", 30));
+        CompletableFuture<Map<String, List<SampledValue>>> columns = sweep != null ? sweep
+                : sampler.sample(Collections.singleton(placeholder));
+        try {
+            List<SampledValue> column = columns.get(timeoutSeconds, TimeUnit.SECONDS).get(placeholder);
+            return column != null ? column : Collections.emptyList();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Amostragem de " + placeholder + " interrompida", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Amostragem de " + placeholder + " não concluída: " + e, e);
+        }
+    }
+
+    // Preserva as opções próprias do holograma quando a configuração é substituída por comando
+    private HologramConfig keepHologramOptions(String id, HologramConfig config) {
+        HologramConfig previous = activeHologramConfigs.get(id);
+        return previous != null ? config.withOptionsFrom(previous) : config;
+    }
+
     public Set<String> getConfiguredHologramIDs() {
         return activeHologramConfigs.keySet();
     }
 
-    public Map<String, Object> getHologramConfig(String id) {
+    public HologramConfig getHologramConfig(String id) {
         return activeHologramConfigs.get(id);
     }
 
+    /**
+     * Obtém quantas renderizações de um holograma foram puladas porque o ranking não mudou
+     *
+     * @param id ID do holograma
+     * @return número de renderizações puladas desde o carregamento
+     */
+    public long getSkippedRenders(String id) {
+        LongAdder skipped = skippedRenders.get(id);
+        return skipped != null ? skipped.sum() : 0;
+    }
+
+    public PlaceholderSampler getSampler() {
+        return sampler;
+    }
+
+    public UpdateMetrics getMetrics() {
+        return metrics;
+    }
+
+    public UpdateCycleExecutor getCycleExecutor() {
+        return cycleExecutor;
+    }
+
+    public RenderQueue getRenderQueue() {
+        return renderQueue;
+    }
+
     public boolean hologramExists(String id) {
         return activeHologramConfigs.containsKey(id);
     }
-}
\ No newline at end of file
+
+    // Tempos da última consulta de um grupo, preenchidos por fetchSnapshot
+    private static final class FetchTimings {
+        long fetchNanos;
+        long selectNanos;
+    }
+
+    /**
+     * Páginas de um holograma dividido em páginas. Cada atualização da primeira página inicia um
+     * novo ciclo; páginas carregadas em ciclos anteriores são consideradas desatualizadas.
+     */
+    private static final class PageCache {
+        private final Map<Integer, List<PlayerDataEntry>> pages = new HashMap<>();
+        private final Map<Integer, Integer> pageCycles = new HashMap<>();
+        private final Map<Integer, Integer> lastRequested = new HashMap<>();
+        private final Set<Integer> loading = new HashSet<>();
+        private int cycle;
+
+        /**
+         * Inicia um novo ciclo com a primeira página recém-consultada
+         *
+         * @return páginas abertas no ciclo atual ou no anterior, que devem ser recarregadas
+         */
+        synchronized List<Integer> reset(List<PlayerDataEntry> firstPage) {
+            List<Integer> recent = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : lastRequested.entrySet()) {
+                if (entry.getValue() >= cycle - 1) {
+                    recent.add(entry.getKey());
+                }
+            }
+            cycle++;
+            pages.clear();
+            pageCycles.clear();
+            pages.put(0, firstPage);
+            pageCycles.put(0, cycle);
+            return recent;
+        }
+
+        /**
+         * @param byViewer true se a página foi aberta por um jogador (e não recarregada automaticamente)
+         * @return ciclo em que a página será carregada, ou -1 se ela já está atualizada ou sendo carregada
+         */
+        synchronized int startLoading(int page, boolean byViewer) {
+            if (byViewer) {
+                lastRequested.put(page, cycle);
+            }
+            if (get(page, cycle) != null || !loading.add(page)) {
+                return -1;
+            }
+            return cycle;
+        }
+
+        synchronized void finishLoading(int page) {
+            loading.remove(page);
+        }
+
+        synchronized List<PlayerDataEntry> get(int page, int expectedCycle) {
+            Integer pageCycle = pageCycles.get(page);
+            return pageCycle != null && pageCycle == expectedCycle ? pages.get(page) : null;
+        }
+
+        synchronized void store(int page, int pageCycle, List<PlayerDataEntry> entries) {
+            if (pageCycle == cycle) {
+                pages.put(page, entries);
+                pageCycles.put(page, pageCycle);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.activity;
+
+import eu.decentsoftware.holograms.api.DHAPI;
+import eu.decentsoftware.holograms.api.holograms.Hologram;
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.DynamicTopHolograms.dynamicTopHolograms.RankingHologramManager;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Acompanha se há alguém perto de cada holograma de ranking.
+ * <p>
+ * Um holograma fica dormente quando o chunk dele está descarregado ou quando nenhum jogador
+ * esteve a menos de {@code dormancy.view-distance} blocos nos últimos
+ * {@code dormancy.grace-seconds}. Hologramas dormentes não são consultados nem renderizados
+ * pelo agendador; quando alguém volta, recebem uma atualização imediata.
+ * <p>
+ * A presença de jogadores é amostrada periodicamente na thread principal, percorrendo apenas
+ * os jogadores do mundo de cada holograma, em vez de escutar cada movimento.
+ */
+public class HologramActivityTracker implements Listener {
+
+    private final DynamicTopHolograms plugin;
+    private final RankingHologramManager hologramManager;
+    private final Map<String, Watch> watches = new ConcurrentHashMap<>();
+    private BukkitTask task;
+
+    public HologramActivityTracker(DynamicTopHolograms plugin, RankingHologramManager hologramManager) {
+        this.plugin = plugin;
+        this.hologramManager = hologramManager;
+    }
+
+    public void start() {
+        stop();
+        long period = Math.max(1L, plugin.getConfigManager().getConfig().getLong("dormancy.sample-ticks", 40));
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::sample, period, period);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Verifica se um holograma está dormente (sem ninguém por perto)
+     *
+     * @param hologramID ID do holograma
+     * @return true se a atualização pode ser pulada
+     */
+    public boolean isDormant(String hologramID) {
+        if (!isEnabled()) {
+            return false;
+        }
+        Watch watch = watches.get(hologramID);
+        // Hologramas ainda não localizados são tratados como ativos
+        return watch != null && watch.dormant;
+    }
+
+    /**
+     * Registra que uma atualização foi pulada por dormência, para que o holograma seja
+     * atualizado assim que alguém se aproximar
+     *
+     * @param hologramID ID do holograma
+     */
+    public void markMissed(String hologramID) {
+        Watch watch = watches.get(hologramID);
+        if (watch != null) {
+            watch.missedRefresh = true;
+        }
+    }
+
+    /**
+     * Descarta a posição conhecida de um holograma (movido, removido ou recarregado)
+     *
+     * @param hologramID ID do holograma
+     */
+    public void forget(String hologramID) {
+        watches.remove(hologramID);
+    }
+
+    public void clear() {
+        watches.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        setChunkLoaded(event.getChunk(), true);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        setChunkLoaded(event.getChunk(), false);
+    }
+
+    private void setChunkLoaded(Chunk chunk, boolean loaded) {
+        if (watches.isEmpty()) {
+            return;
+        }
+        String worldName = chunk.getWorld().getName();
+        for (Watch watch : watches.values()) {
+            if (watch.chunkX == chunk.getX() && watch.chunkZ == chunk.getZ() && watch.worldName.equals(worldName)) {
+                watch.chunkLoaded = loaded;
+            }
+        }
+    }
+
+    private boolean isEnabled() {
+        return plugin.getConfigManager().getConfig().getBoolean("dormancy.enabled", true);
+    }
+
+    // Executado na thread principal
+    private void sample() {
+        watches.keySet().retainAll(hologramManager.getConfiguredHologramIDs());
+
+        double viewDistance = plugin.getConfigManager().getConfig().getDouble("dormancy.view-distance", 48);
+        double viewDistanceSquared = viewDistance * viewDistance;
+        long graceMillis = plugin.getConfigManager().getConfig().getLong("dormancy.grace-seconds", 60) * 1000L;
+        long now = System.currentTimeMillis();
+
+        for (String id : hologramManager.getConfiguredHologramIDs()) {
+            Watch watch = watches.get(id);
+            if (watch == null) {
+                watch = locate(id, now);
+                if (watch == null) {
+                    continue;
+                }
+                watches.put(id, watch);
+            }
+
+            if (watch.chunkLoaded) {
+                World world = Bukkit.getWorld(watch.worldName);
+                if (world != null) {
+                    for (Player player : world.getPlayers()) {
+                        if (player.getLocation().distanceSquared(watch.location) <= viewDistanceSquared) {
+                            watch.lastViewerMillis = now;
+                            break;
+                        }
+                    }
+                }
+            }
+
+            boolean dormant = !watch.chunkLoaded || now - watch.lastViewerMillis > graceMillis;
+            if (watch.dormant && !dormant && watch.missedRefresh) {
+                // Alguém voltou: uma atualização de recuperação imediata
+                watch.missedRefresh = false;
+                hologramManager.forceUpdateHologram(id);
+            }
+            watch.dormant = dormant;
+        }
+    }
+
+    private Watch locate(String hologramID, long now) {
+        Hologram hologram = DHAPI.getHologram(hologramID);
+        if (hologram == null || hologram.getLocation() == null || hologram.getLocation().getWorld() == null) {
+            return null;
+        }
+        Location location = hologram.getLocation().clone();
+        Watch watch = new Watch();
+        watch.location = location;
+        watch.worldName = location.getWorld().getName();
+        watch.chunkX = location.getBlockX() >> 4;
+        watch.chunkZ = location.getBlockZ() >> 4;
+        watch.chunkLoaded = location.getWorld().isChunkLoaded(watch.chunkX, watch.chunkZ);
+        // Começa como ativo, para que o holograma receba conteúdo logo após ser localizado
+        watch.lastViewerMillis = now;
+        return watch;
+    }
+
+    private static class Watch {
+        Location location;
+        String worldName;
+        int chunkX;
+        int chunkZ;
+        volatile boolean chunkLoaded;
+        volatile long lastViewerMillis;
+        volatile boolean dormant;
+        volatile boolean missedRefresh;
+    }
+}
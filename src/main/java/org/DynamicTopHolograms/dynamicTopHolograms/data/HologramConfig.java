@@ -0,0 +1,279 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.data;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.render.LineTemplate;
+import org.DynamicTopHolograms.dynamicTopHolograms.render.ValueFormatter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Configuração imutável de um holograma de ranking.
+ * <p>
+ * A fonte de dados é interpretada uma única vez (PAPI ou {@code db:<conector>:<campo>}) e os
+ * formatos de título e de linha ficam pré-compilados. Alterações criam uma nova instância,
+ * que substitui a anterior por inteiro no mapa do gerenciador; quem estiver lendo em outra
+ * thread vê a configuração antiga ou a nova, nunca uma mistura das duas.
+ */
+public final class HologramConfig {
+
+    public static final String DEFAULT_TITLE = "&6&lTop {placeholder_name}";
+    public static final String DEFAULT_FORMAT = "&e{rank}. &f{player} &7- &a{value}";
+
+    // Variáveis do formato de linha, na ordem dos valores passados para LineTemplate.apply
+    public static final int VAR_RANK = 0;
+    public static final int VAR_PLAYER = 1;
+    public static final int VAR_VALUE = 2;
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    public enum SourceType {
+        PAPI, DATABASE, INVALID
+    }
+
+    private final String dataSource;
+    private final SourceType sourceType;
+    private final String placeholder;
+    private final String connectorName;
+    private final String field;
+    private final int topN;
+    private final String title;
+    private final String format;
+    private final boolean ascending;
+    private final long updateIntervalMinutes;
+    private final String valueFormat;
+    private final int pageSize;
+    private final String viewerLine;
+
+    private final String sourceKey;
+    private final String connectorKey;
+    private final LineTemplate titleTemplate;
+    private final LineTemplate lineTemplate;
+    private final ValueFormatter valueFormatter;
+    private final LineTemplate viewerLineTemplate;
+    private final long version;
+
+    /**
+     * @param dataSource            "papi" ou "db:<conector>:<campo>"
+     * @param placeholder           placeholder do PAPI (ignorado para banco de dados)
+     * @param topN                  número de posições exibidas
+     * @param title                 título, com {@code {placeholder_name}}
+     * @param format                formato de linha, com {@code {rank}}, {@code {player}} e {@code {value}}
+     * @param ascending             true para ordem crescente
+     * @param updateIntervalMinutes intervalo próprio do holograma, ou 0 para usar o global
+     * @param valueFormat           opção {@code value-format} (ver {@link ValueFormatter}), ou null para o padrão
+     * @param pageSize              posições por página do DecentHolograms, ou 0 para uma única página
+     * @param viewerLine            linha com a posição de quem está vendo, com {@code {rank}}, {@code {player}}
+     *                              e {@code {value}}, ou null para não exibir
+     */
+    public HologramConfig(String dataSource, String placeholder, int topN, String title, String format,
+            boolean ascending, long updateIntervalMinutes, String valueFormat, int pageSize, String viewerLine) {
+        this.dataSource = dataSource != null ? dataSource : "papi";
+        this.placeholder = placeholder;
+        this.topN = topN;
+        this.title = title != null ? title : DEFAULT_TITLE;
+        this.format = format != null ? format : DEFAULT_FORMAT;
+        this.ascending = ascending;
+        this.updateIntervalMinutes = Math.max(0, updateIntervalMinutes);
+        this.valueFormat = valueFormat;
+        this.pageSize = Math.max(0, pageSize);
+        this.viewerLine = viewerLine != null && !viewerLine.isEmpty() ? viewerLine : null;
+
+        // Corrigido para lidar com múltiplos ":" no campo
+        String connector = null;
+        String dbField = null;
+        SourceType type;
+        if ("papi".equals(this.dataSource)) {
+            type = SourceType.PAPI;
+        } else if (this.dataSource.startsWith("db:")) {
+            String dbInfo = this.dataSource.substring(3);
+            int firstColonIndex = dbInfo.indexOf(':');
+            if (firstColonIndex > 0) {
+                connector = dbInfo.substring(0, firstColonIndex);
+                dbField = dbInfo.substring(firstColonIndex + 1);
+                type = SourceType.DATABASE;
+            } else {
+                type = SourceType.INVALID;
+            }
+        } else {
+            type = SourceType.INVALID;
+        }
+        this.sourceType = type;
+        this.connectorName = connector;
+        this.field = dbField;
+
+        String source = type == SourceType.PAPI ? "papi:" + placeholder : this.dataSource;
+        this.sourceKey = source + (ascending ? "|asc" : "|desc");
+        this.connectorKey = type == SourceType.DATABASE ? connector.toLowerCase() : "papi";
+        this.titleTemplate = LineTemplate.compile(this.title, "{placeholder_name}");
+        this.lineTemplate = LineTemplate.compile(this.format, "{rank}", "{player}", "{value}");
+        ValueFormatter formatter = ValueFormatter.parse(valueFormat);
+        this.valueFormatter = formatter != null ? formatter : ValueFormatter.GROUPED;
+        this.viewerLineTemplate = this.viewerLine != null
+                ? LineTemplate.compile(this.viewerLine, "{rank}", "{player}", "{value}")
+                : null;
+        this.version = VERSIONS.incrementAndGet();
+    }
+
+    public static HologramConfig papi(String placeholder, int topN, String title, String format, boolean ascending) {
+        return new HologramConfig("papi", placeholder, topN, title, format, ascending, 0, null, 0, null);
+    }
+
+    public static HologramConfig database(String connectorName, String field, int topN, String title, String format,
+            boolean ascending) {
+        return new HologramConfig("db:" + connectorName + ":" + field, null, topN, title, format, ascending, 0, null, 0,
+                null);
+    }
+
+    public HologramConfig withTitle(String newTitle) {
+        return new HologramConfig(dataSource, placeholder, topN, newTitle, format, ascending, updateIntervalMinutes,
+                valueFormat, pageSize, viewerLine);
+    }
+
+    public HologramConfig withAscending(boolean newAscending) {
+        return new HologramConfig(dataSource, placeholder, topN, title, format, newAscending, updateIntervalMinutes,
+                valueFormat, pageSize, viewerLine);
+    }
+
+    /**
+     * Copia as opções que só existem no holograms.yml (intervalo, formato de valor, páginas e linha do jogador) de outra configuração
+     *
+     * @param previous configuração anterior do mesmo holograma
+     * @return nova configuração com as opções preservadas
+     */
+    public HologramConfig withOptionsFrom(HologramConfig previous) {
+        return new HologramConfig(dataSource, placeholder, topN, title, format, ascending,
+                previous.updateIntervalMinutes, previous.valueFormat, previous.pageSize, previous.viewerLine);
+    }
+
+    public String getDataSource() {
+        return dataSource;
+    }
+
+    public SourceType getSourceType() {
+        return sourceType;
+    }
+
+    public boolean isPapi() {
+        return sourceType == SourceType.PAPI;
+    }
+
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    public String getConnectorName() {
+        return connectorName;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public int getTopN() {
+        return topN;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * @return intervalo próprio do holograma em minutos, ou 0 se usa o global
+     */
+    public long getUpdateIntervalMinutes() {
+        return updateIntervalMinutes;
+    }
+
+    /**
+     * @return chave da consulta (fonte + ordem); hologramas com a mesma chave compartilham o resultado
+     */
+    public String getSourceKey() {
+        return sourceKey;
+    }
+
+    /**
+     * @return conector ao qual se aplica o limite de concorrência ("papi" ou o nome do conector)
+     */
+    public String getConnectorKey() {
+        return connectorKey;
+    }
+
+    /**
+     * @return texto exibido em listagens (placeholder ou fonte de banco de dados)
+     */
+    public String getSourceLabel() {
+        return isPapi() ? placeholder : dataSource;
+    }
+
+    /**
+     * @return opção {@code value-format} como configurada, ou null se não definida
+     */
+    public String getValueFormat() {
+        return valueFormat;
+    }
+
+    public ValueFormatter getValueFormatter() {
+        return valueFormatter;
+    }
+
+    /**
+     * @return posições por página, ou 0 se o holograma não é dividido em páginas
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @return número de páginas do holograma (1 se não é dividido)
+     */
+    public int getPageCount() {
+        return pageSize > 0 && topN > pageSize ? (topN + pageSize - 1) / pageSize : 1;
+    }
+
+    /**
+     * @return posições exibidas na primeira página, consultadas a cada atualização
+     */
+    public int getFirstPageSize() {
+        return getPageCount() > 1 ? pageSize : topN;
+    }
+
+    /**
+     * @return formato da linha com a posição de quem está vendo, ou null se desativada
+     */
+    public String getViewerLine() {
+        return viewerLine;
+    }
+
+    public boolean hasViewerLine() {
+        return viewerLine != null;
+    }
+
+    /**
+     * @return formato pré-compilado da linha do jogador, com as mesmas variáveis do formato de linha
+     */
+    public LineTemplate getViewerLineTemplate() {
+        return viewerLineTemplate;
+    }
+
+    public LineTemplate getTitleTemplate() {
+        return titleTemplate;
+    }
+
+    public LineTemplate getLineTemplate() {
+        return lineTemplate;
+    }
+
+    /**
+     * @return número crescente, diferente a cada nova configuração
+     */
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,417 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * Índice ordenado de um ranking, mantido de forma incremental.
+ * <p>
+ * É uma árvore de busca balanceada (treap) ordenada por (valor, UUID), em que cada nó guarda o
+ * tamanho da sua subárvore e o lastSeen mais antigo dela. Atualizar o valor de um jogador custa O(log n), e as consultas de
+ * top-K, de uma faixa de posições ou da posição de um jogador não precisam ordenar a lista inteira.
+ * A ordem crescente ou decrescente é escolhida na consulta, percorrendo a árvore em um sentido ou
+ * no outro. Todos os métodos são sincronizados.
+ */
+public final class LeaderboardIndex {
+
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private Node root;
+
+    /**
+     * Insere ou atualiza um jogador
+     *
+     * @param uuid     UUID do jogador
+     * @param name     nome do jogador
+     * @param value    valor atual
+     * @param lastSeen última vez que o valor foi visto (segundos desde a época)
+     */
+    public synchronized void update(UUID uuid, String name, double value, long lastSeen) {
+        Node existing = nodes.get(uuid);
+        if (existing != null) {
+            if (Double.compare(existing.value, value) == 0) {
+                // Mesma posição na árvore: só atualiza os dados e o lastSeen mais antigo do caminho
+                existing.name = name;
+                existing.lastSeen = lastSeen;
+                refreshPath(root, value, uuid);
+                return;
+            }
+            root = delete(root, existing.value, uuid);
+        }
+        Node node = new Node(uuid, name, value, lastSeen);
+        nodes.put(uuid, node);
+        root = insert(root, node);
+    }
+
+    /**
+     * Substitui todo o conteúdo do índice de uma vez, em tempo linear.
+     * <p>
+     * As entradas devem estar em ordem crescente de (valor, UUID), como em um snapshot gravado a
+     * partir de {@link #range(int, int, boolean)}; a árvore é montada direto da sequência, sem
+     * inserções. Se a ordem não for respeitada, as entradas são inseridas uma a uma.
+     *
+     * @param uuids    UUIDs dos jogadores
+     * @param names    nomes dos jogadores
+     * @param values   valores
+     * @param lastSeen última vez que cada valor foi visto (segundos desde a época)
+     * @param count    número de entradas usadas dos arrays
+     */
+    public synchronized void loadSorted(UUID[] uuids, String[] names, double[] values, long[] lastSeen, int count) {
+        nodes.clear();
+        root = null;
+        Node[] ordered = new Node[count];
+        boolean sorted = true;
+        for (int i = 0; i < count; i++) {
+            ordered[i] = new Node(uuids[i], names[i], values[i], lastSeen[i]);
+            if (i > 0 && compare(values[i], uuids[i], ordered[i - 1]) <= 0) {
+                sorted = false;
+            }
+        }
+        if (!sorted) {
+            for (int i = 0; i < count; i++) {
+                update(uuids[i], names[i], values[i], lastSeen[i]);
+            }
+            return;
+        }
+
+        // Árvore cartesiana: a pilha guarda o caminho mais à direita; cada nó novo desce até
+        // encontrar um ancestral de prioridade maior e adota como filho esquerdo o que passou
+        Node[] rightSpine = new Node[count];
+        int top = -1;
+        for (Node node : ordered) {
+            Node last = null;
+            while (top >= 0 && rightSpine[top].priority < node.priority) {
+                last = rightSpine[top--];
+            }
+            node.left = last;
+            if (top >= 0) {
+                rightSpine[top].right = node;
+            }
+            rightSpine[++top] = node;
+            nodes.put(node.uuid, node);
+        }
+        root = top >= 0 ? rightSpine[0] : null;
+        resizeAll(root);
+    }
+
+    /**
+     * Remove um jogador do índice
+     *
+     * @param uuid UUID do jogador
+     */
+    public synchronized void remove(UUID uuid) {
+        Node existing = nodes.remove(uuid);
+        if (existing != null) {
+            root = delete(root, existing.value, uuid);
+        }
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    public synchronized Entry get(UUID uuid) {
+        Node node = nodes.get(uuid);
+        return node != null ? node.toEntry() : null;
+    }
+
+    /**
+     * Obtém as primeiras posições do ranking
+     *
+     * @param limit     número máximo de entradas
+     * @param ascending true para menor valor primeiro
+     * @param filter    entradas recusadas são puladas e não contam posição (ex: dados expirados)
+     * @return entradas em ordem de ranking
+     */
+    public synchronized List<Entry> top(int limit, boolean ascending, Predicate<Entry> filter) {
+        List<Entry> result = new ArrayList<>(Math.min(Math.max(limit, 0), nodes.size()));
+        if (limit > 0) {
+            collectFiltered(root, limit, ascending, filter, result);
+        }
+        return result;
+    }
+
+    /**
+     * Obtém uma faixa de posições do ranking, sem filtro (ex: páginas)
+     *
+     * @param offset    número de posições a pular (0 = primeira posição)
+     * @param limit     número máximo de entradas
+     * @param ascending true para menor valor primeiro
+     * @return entradas em ordem de ranking
+     */
+    public synchronized List<Entry> range(int offset, int limit, boolean ascending) {
+        List<Entry> result = new ArrayList<>(Math.max(0, Math.min(limit, nodes.size() - offset)));
+        if (limit > 0 && offset < nodes.size()) {
+            collectRange(root, Math.max(0, offset), limit, ascending, result);
+        }
+        return result;
+    }
+
+    /**
+     * Obtém a posição de um jogador no ranking, contando só as entradas não expiradas, como em
+     * {@link #top(int, boolean, Predicate)} com o filtro de lastSeen
+     *
+     * @param uuid        UUID do jogador
+     * @param ascending   true para menor valor primeiro
+     * @param minLastSeen entradas mais antigas que isso (segundos desde a época) não contam
+     * @return posição começando em 1, ou -1 se o jogador não estiver no índice ou tiver expirado
+     */
+    public synchronized int rankOf(UUID uuid, boolean ascending, long minLastSeen) {
+        Node target = nodes.get(uuid);
+        if (target == null || target.lastSeen < minLastSeen) {
+            return -1;
+        }
+        // Entradas não expiradas à frente do alvo na ordem pedida
+        int ahead = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(target.value, uuid, node);
+            if (cmp < 0) {
+                if (!ascending) {
+                    ahead += countSince(node.right, minLastSeen) + (node.lastSeen >= minLastSeen ? 1 : 0);
+                }
+                node = node.left;
+            } else if (cmp > 0) {
+                if (ascending) {
+                    ahead += countSince(node.left, minLastSeen) + (node.lastSeen >= minLastSeen ? 1 : 0);
+                }
+                node = node.right;
+            } else {
+                ahead += countSince(ascending ? node.left : node.right, minLastSeen);
+                break;
+            }
+        }
+        return ahead + 1;
+    }
+
+    // Subárvores sem entradas expiradas contam pelo tamanho; só as com expiradas são percorridas
+    private static int countSince(Node node, long minLastSeen) {
+        if (node == null) {
+            return 0;
+        }
+        if (node.oldest >= minLastSeen) {
+            return node.size;
+        }
+        return countSince(node.left, minLastSeen) + countSince(node.right, minLastSeen)
+                + (node.lastSeen >= minLastSeen ? 1 : 0);
+    }
+
+    // Percorre em ordem parando ao atingir o limite; retorna false quando não precisa continuar
+    private boolean collectFiltered(Node node, int limit, boolean ascending, Predicate<Entry> filter,
+            List<Entry> out) {
+        if (node == null) {
+            return true;
+        }
+        Node first = ascending ? node.left : node.right;
+        Node second = ascending ? node.right : node.left;
+        if (!collectFiltered(first, limit, ascending, filter, out)) {
+            return false;
+        }
+        Entry entry = node.toEntry();
+        if (filter == null || filter.test(entry)) {
+            out.add(entry);
+            if (out.size() >= limit) {
+                return false;
+            }
+        }
+        return collectFiltered(second, limit, ascending, filter, out);
+    }
+
+    // Usa os tamanhos das subárvores para pular direto para a posição inicial
+    private void collectRange(Node node, int skip, int limit, boolean ascending, List<Entry> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        Node first = ascending ? node.left : node.right;
+        Node second = ascending ? node.right : node.left;
+        int firstSize = size(first);
+        if (skip < firstSize) {
+            collectRange(first, skip, limit, ascending, out);
+        }
+        if (out.size() >= limit) {
+            return;
+        }
+        if (skip <= firstSize) {
+            out.add(node.toEntry());
+        }
+        collectRange(second, Math.max(0, skip - firstSize - 1), limit, ascending, out);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.value, inserted.uuid, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        resize(node);
+        return node;
+    }
+
+    private static Node delete(Node node, double value, UUID uuid) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(value, uuid, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, value, uuid);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, value, uuid);
+        } else {
+            return merge(node.left, node.right);
+        }
+        resize(node);
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            resize(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        resize(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        resize(node);
+        resize(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        resize(node);
+        resize(pivot);
+        return pivot;
+    }
+
+    private static int compare(double value, UUID uuid, Node node) {
+        int cmp = Double.compare(value, node.value);
+        return cmp != 0 ? cmp : uuid.compareTo(node.uuid);
+    }
+
+    private static void refreshPath(Node node, double value, UUID uuid) {
+        if (node == null) {
+            return;
+        }
+        int cmp = compare(value, uuid, node);
+        if (cmp < 0) {
+            refreshPath(node.left, value, uuid);
+        } else if (cmp > 0) {
+            refreshPath(node.right, value, uuid);
+        }
+        resize(node);
+    }
+
+    private static void resizeAll(Node node) {
+        if (node == null) {
+            return;
+        }
+        resizeAll(node.left);
+        resizeAll(node.right);
+        resize(node);
+    }
+
+    private static void resize(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        long oldest = node.lastSeen;
+        if (node.left != null && node.left.oldest < oldest) {
+            oldest = node.left.oldest;
+        }
+        if (node.right != null && node.right.oldest < oldest) {
+            oldest = node.right.oldest;
+        }
+        node.oldest = oldest;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static final class Node {
+        final UUID uuid;
+        final double value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        String name;
+        long lastSeen;
+        int size = 1;
+        // Menor lastSeen da subárvore
+        long oldest;
+        Node left;
+        Node right;
+
+        Node(UUID uuid, String name, double value, long lastSeen) {
+            this.uuid = uuid;
+            this.name = name;
+            this.value = value;
+            this.lastSeen = lastSeen;
+            this.oldest = lastSeen;
+        }
+
+        Entry toEntry() {
+            return new Entry(uuid, name, value, lastSeen);
+        }
+    }
+
+    /**
+     * Cópia imutável de uma posição do índice
+     */
+    public static final class Entry {
+        private final UUID uuid;
+        private final String name;
+        private final double value;
+        private final long lastSeen;
+
+        Entry(UUID uuid, String name, double value, long lastSeen) {
+            this.uuid = uuid;
+            this.name = name;
+            this.value = value;
+            this.lastSeen = lastSeen;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        /**
+         * @return última vez que o valor foi visto (segundos desde a época)
+         */
+        public long getLastSeen() {
+            return lastSeen;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.data;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.PlayerDataEntry;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado imutável de uma consulta de ranking para uma fonte de dados.
+ * <p>
+ * Um mesmo snapshot é compartilhado por todos os hologramas que usam a mesma fonte e a
+ * mesma ordem; cada holograma lê apenas a fatia correspondente ao seu topN.
+ * <p>
+ * Na criação é calculada uma impressão digital acumulada (UUID, nome e valor de cada posição),
+ * para que cada holograma saiba, sem montar as linhas, se a sua fatia mudou desde a última
+ * renderização.
+ */
+public final class LeaderboardSnapshot {
+
+    private final String sourceKey;
+    private final boolean ascending;
+    private final List<PlayerDataEntry> entries;
+    private final long createdAt;
+    // prefixFingerprints[i] = impressão digital das i primeiras posições
+    private final long[] prefixFingerprints;
+
+    public LeaderboardSnapshot(String sourceKey, boolean ascending, List<PlayerDataEntry> entries) {
+        this.sourceKey = sourceKey;
+        this.ascending = ascending;
+        this.entries = Collections.unmodifiableList(entries);
+        this.createdAt = System.currentTimeMillis();
+
+        this.prefixFingerprints = new long[entries.size() + 1];
+        long hash = ascending ? 1 : 2;
+        prefixFingerprints[0] = hash;
+        for (int i = 0; i < entries.size(); i++) {
+            PlayerDataEntry entry = entries.get(i);
+            hash = mix(hash, entry.getPlayerUUID().getMostSignificantBits());
+            hash = mix(hash, entry.getPlayerUUID().getLeastSignificantBits());
+            hash = mix(hash, Double.doubleToLongBits(entry.getValue()));
+            hash = mix(hash, entry.getPlayerName().hashCode());
+            prefixFingerprints[i + 1] = hash;
+        }
+    }
+
+    public String getSourceKey() {
+        return sourceKey;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * @return entradas já ordenadas, em lista somente leitura
+     */
+    public List<PlayerDataEntry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Obtém as primeiras posições do ranking
+     *
+     * @param topN número máximo de entradas
+     * @return visão somente leitura das primeiras entradas
+     */
+    public List<PlayerDataEntry> slice(int topN) {
+        return entries.size() <= topN ? entries : entries.subList(0, topN);
+    }
+
+    /**
+     * Obtém a impressão digital das primeiras posições do ranking
+     *
+     * @param topN número de posições consideradas (como em {@link #slice(int)})
+     * @param salt valores que também afetam o resultado renderizado (ex: versão da configuração)
+     * @return impressão digital; valores iguais indicam, com altíssima probabilidade, o mesmo conteúdo
+     */
+    public long fingerprint(int topN, long... salt) {
+        long hash = prefixFingerprints[Math.max(0, Math.min(topN, entries.size()))];
+        for (long value : salt) {
+            hash = mix(hash, value);
+        }
+        return hash;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
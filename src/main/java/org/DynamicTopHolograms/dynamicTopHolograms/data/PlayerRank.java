@@ -0,0 +1,26 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.data;
+
+/**
+ * Posição de um jogador em um ranking, com o valor que a determinou
+ */
+public final class PlayerRank {
+
+    private final int rank;
+    private final double value;
+
+    public PlayerRank(int rank, double value) {
+        this.rank = rank;
+        this.value = value;
+    }
+
+    /**
+     * @return posição começando em 1
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    public double getValue() {
+        return value;
+    }
+}
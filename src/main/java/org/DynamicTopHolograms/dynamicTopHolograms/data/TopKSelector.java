@@ -0,0 +1,55 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Seleciona as K primeiras posições de uma lista sem ordená-la por inteiro.
+ * <p>
+ * Mantém um heap limitado a K elementos, com o pior deles no topo: cada item é comparado apenas
+ * com esse pior e só entra se for melhor, em O(n log K). Com empates, a ordem entre itens de
+ * mesmo valor não é garantida.
+ */
+public final class TopKSelector {
+
+    private TopKSelector() {
+    }
+
+    /**
+     * @see #select(List, int, Comparator)
+     */
+    public static <T extends Comparable<? super T>> List<T> select(List<? extends T> items, int k) {
+        return select(items, k, Comparator.naturalOrder());
+    }
+
+    /**
+     * Seleciona os K melhores itens
+     *
+     * @param items lista de entrada (não é modificada)
+     * @param k     número de itens desejados
+     * @param order ordem do ranking; o "menor" item pela ordem é o primeiro colocado
+     * @return até K itens, já em ordem de ranking
+     */
+    public static <T> List<T> select(List<? extends T> items, int k, Comparator<? super T> order) {
+        if (k <= 0 || items.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Topo do heap = pior dos K atuais
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.min(k, items.size()) + 1, order.reversed());
+        for (T item : items) {
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+}
@@ -1,5 +1,8 @@
 package org.DynamicTopHolograms.dynamicTopHolograms.database;
 
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -41,6 +44,37 @@ public interface DatabaseConnector {
      */
     List<DatabasePlayerEntry> getTopPlayers(String field, int limit, boolean ascending);
     
+    /**
+     * Obtém a próxima página do ranking, continuando a partir da última entrada da página anterior.
+     * Conectores que suportam paginação por chave consultam apenas as entradas após {@code after};
+     * a implementação padrão consulta desde o início e descarta as primeiras {@code offset} posições.
+     * @param field campo a ser consultado
+     * @param limit número máximo de registros da página
+     * @param ascending true para ordem crescente, false para decrescente
+     * @param after última entrada da página anterior, ou null para a primeira página
+     * @param offset posição da primeira entrada da página (0 = primeira posição)
+     * @return lista de entradas da página
+     */
+    default List<DatabasePlayerEntry> getTopPlayersAfter(String field, int limit, boolean ascending,
+            DatabasePlayerEntry after, int offset) {
+        List<DatabasePlayerEntry> entries = getTopPlayers(field, offset + limit, ascending);
+        if (entries.size() <= offset) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(entries.subList(offset, entries.size()));
+    }
+    
+    /**
+     * Obtém a posição de um jogador no ranking de um campo
+     * @param field campo a ser consultado
+     * @param playerUUID UUID do jogador
+     * @param ascending true para ordem crescente, false para decrescente
+     * @return posição e valor do jogador, ou null se o jogador não tiver valor ou o conector não suportar a consulta
+     */
+    default PlayerRank getPlayerRank(String field, UUID playerUUID, boolean ascending) {
+        return null;
+    }
+    
     /**
      * Fecha a conexão com o banco de dados
      */
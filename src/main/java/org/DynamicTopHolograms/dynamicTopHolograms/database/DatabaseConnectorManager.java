@@ -2,6 +2,7 @@ package org.DynamicTopHolograms.dynamicTopHolograms.database;
 
 import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
 import org.DynamicTopHolograms.dynamicTopHolograms.PlayerDataEntry;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
 import org.DynamicTopHolograms.dynamicTopHolograms.database.connectors.*;
 
 import java.util.*;
@@ -181,7 +182,8 @@ public class DatabaseConnectorManager {
 
         // Converter DatabasePlayerEntry para PlayerDataEntry
         for (DatabasePlayerEntry entry : entries) {
-            result.add(new PlayerDataEntry(entry.getPlayerUUID(), entry.getPlayerName(), entry.getValue(), ascending));
+            result.add(new PlayerDataEntry(entry.getPlayerUUID(), entry.getPlayerName(), entry.getValue(), ascending,
+                    entry.getSourceId()));
         }
 
         // Log para depuração
@@ -192,6 +194,57 @@ public class DatabaseConnectorManager {
         return result;
     }
 
+    /**
+     * Obtém uma página do ranking de um banco de dados, continuando a partir da última entrada
+     * da página anterior
+     * 
+     * @param connectorName nome do conector
+     * @param field         campo a ser consultado
+     * @param limit         número máximo de registros da página
+     * @param ascending     true para ordem crescente, false para decrescente
+     * @param after         última entrada da página anterior, ou null para a primeira página
+     * @param offset        posição da primeira entrada da página (para conectores sem paginação por chave)
+     * @return lista de entradas da página
+     */
+    public List<PlayerDataEntry> getPageFromDatabase(String connectorName, String field, int limit,
+            boolean ascending, PlayerDataEntry after, int offset) {
+        List<PlayerDataEntry> result = new ArrayList<>();
+
+        DatabaseConnector connector = connectors.get(connectorName);
+        if (connector == null || !connector.isAvailable()) {
+            plugin.getLogger().warning("Conector de banco de dados não disponível: " + connectorName);
+            return result;
+        }
+
+        DatabasePlayerEntry cursor = after != null
+                ? new DatabasePlayerEntry(after.getPlayerUUID(), after.getPlayerName(), after.getValue(),
+                        after.getSourceId())
+                : null;
+        for (DatabasePlayerEntry entry : connector.getTopPlayersAfter(field, limit, ascending, cursor, offset)) {
+            result.add(new PlayerDataEntry(entry.getPlayerUUID(), entry.getPlayerName(), entry.getValue(), ascending,
+                    entry.getSourceId()));
+        }
+        return result;
+    }
+
+    /**
+     * Obtém a posição de um jogador no ranking de um banco de dados
+     * 
+     * @param connectorName nome do conector
+     * @param field         campo a ser consultado
+     * @param playerUUID    UUID do jogador
+     * @param ascending     true para ordem crescente, false para decrescente
+     * @return posição e valor do jogador, ou null se não encontrado
+     */
+    public PlayerRank getPlayerRankFromDatabase(String connectorName, String field, UUID playerUUID,
+            boolean ascending) {
+        DatabaseConnector connector = connectors.get(connectorName);
+        if (connector == null || !connector.isAvailable()) {
+            return null;
+        }
+        return connector.getPlayerRank(field, playerUUID, ascending);
+    }
+
     /**
      * Obtém a lista de conectores disponíveis
      * 
@@ -9,11 +9,17 @@ public class DatabasePlayerEntry {
     private final UUID playerUUID;
     private final String playerName;
     private final double value;
+    private final String sourceId;      // Valor original da coluna de ID, usado na paginação
     
     public DatabasePlayerEntry(UUID playerUUID, String playerName, double value) {
+        this(playerUUID, playerName, value, null);
+    }
+    
+    public DatabasePlayerEntry(UUID playerUUID, String playerName, double value, String sourceId) {
         this.playerUUID = playerUUID;
         this.playerName = playerName;
         this.value = value;
+        this.sourceId = sourceId;
     }
     
     public UUID getPlayerUUID() {
@@ -27,4 +33,11 @@ public class DatabasePlayerEntry {
     public double getValue() {
         return value;
     }
+    
+    /**
+     * @return valor original da coluna de ID do jogador no banco, ou null se o conector não informar
+     */
+    public String getSourceId() {
+        return sourceId;
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.DynamicTopHolograms.dynamicTopHolograms.database.connectors;
 
 import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
 import org.DynamicTopHolograms.dynamicTopHolograms.database.DatabaseConnector;
 import org.DynamicTopHolograms.dynamicTopHolograms.database.DatabasePlayerEntry;
 import org.bukkit.configuration.ConfigurationSection;
@@ -168,6 +169,17 @@ public class GenericSQLConnector implements DatabaseConnector {
 
     @Override
     public List<DatabasePlayerEntry> getTopPlayers(String field, int limit, boolean ascending) {
+        return getTopPlayersAfter(field, limit, ascending, null, 0);
+    }
+
+    @Override
+    public List<DatabasePlayerEntry> getTopPlayersAfter(String field, int limit, boolean ascending,
+            DatabasePlayerEntry after, int offset) {
+        // Sem o ID da última entrada não há como continuar a consulta; usa o comportamento padrão
+        if (after != null && after.getSourceId() == null) {
+            return DatabaseConnector.super.getTopPlayersAfter(field, limit, ascending, null, offset);
+        }
+
         // O campo deve estar no formato connector:table.field
         String[] parts = field.split(":");
 
@@ -194,7 +206,7 @@ public class GenericSQLConnector implements DatabaseConnector {
         }
 
         // Obter os jogadores do conector
-        List<DatabasePlayerEntry> result = connector.getTopPlayers(tableField, limit, ascending);
+        List<DatabasePlayerEntry> result = connector.getTopPlayers(tableField, limit, ascending, after);
         
         // Log de diagnóstico
         if (debugMode) {
@@ -207,6 +219,20 @@ public class GenericSQLConnector implements DatabaseConnector {
         return result;
     }
 
+    @Override
+    public PlayerRank getPlayerRank(String field, UUID playerUUID, boolean ascending) {
+        // O campo deve estar no formato connector:table.field
+        String[] parts = field.split(":");
+        String connectorName = parts.length == 2 ? parts[0] : "default";
+        String tableField = parts.length == 2 ? parts[1] : parts[0];
+        if (parts.length > 2) {
+            return null;
+        }
+
+        SQLConnectorInstance connector = connectors.get(connectorName);
+        return connector != null ? connector.getPlayerRank(tableField, playerUUID, ascending) : null;
+    }
+
     @Override
     public void close() {
         for (SQLConnectorInstance connector : connectors.values()) {
@@ -749,6 +775,17 @@ public class GenericSQLConnector implements DatabaseConnector {
          * Obtém os jogadores do topo para um campo específico
          */
         public List<DatabasePlayerEntry> getTopPlayers(String field, int limit, boolean ascending) {
+            return getTopPlayers(field, limit, ascending, null);
+        }
+
+        /**
+         * Obtém os jogadores do topo para um campo específico, continuando após uma entrada
+         * (paginação por chave: valor do campo e, em caso de empate, a coluna de ID)
+         *
+         * @param after última entrada da página anterior, ou null para começar do topo
+         */
+        public List<DatabasePlayerEntry> getTopPlayers(String field, int limit, boolean ascending,
+                DatabasePlayerEntry after) {
             List<DatabasePlayerEntry> entries = new ArrayList<>();
 
             if (!available || connection == null) {
@@ -785,21 +822,37 @@ public class GenericSQLConnector implements DatabaseConnector {
                 // Consultar os dados
                 String orderDirection = ascending ? "ASC" : "DESC";
                 
+                // Continuação da página anterior: posições depois da última entrada na mesma ordem.
+                // O ID desempata valores iguais, para que nenhuma linha se repita ou seja pulada
+                String keyset = "";
+                if (after != null) {
+                    String comparison = ascending ? ">" : "<";
+                    keyset = " AND (" + fieldInfo.column + " " + comparison + " ? OR (" + fieldInfo.column
+                            + " = ? AND " + tableInfo.playerIdColumn + " > ?))";
+                }
+
                 // Construir a consulta com proteção extra contra SQL injection
                 String query = "SELECT " + tableInfo.playerIdColumn + ", " + tableInfo.playerNameColumn + ", "
                         + fieldInfo.column +
                         " FROM " + tableInfo.name +
-                        " WHERE " + fieldInfo.column + " IS NOT NULL " +
-                        " ORDER BY " + fieldInfo.column + " " + orderDirection +
+                        " WHERE " + fieldInfo.column + " IS NOT NULL " + keyset +
+                        " ORDER BY " + fieldInfo.column + " " + orderDirection + ", " + tableInfo.playerIdColumn + " ASC" +
                         " LIMIT ?";
 
                 // Mostrar a consulta completa no modo de depuração
                 if (debugMode) {
-                    plugin.getLogger().info("Executando consulta no conector '" + name + "': " + query.replace("?", String.valueOf(limit)));
+                    plugin.getLogger().info("Executando consulta no conector '" + name + "': " + query
+                            + " [limite=" + limit + (after != null ? ", após=" + after.getValue() + "/" + after.getSourceId() : "") + "]");
                 }
 
                 try (PreparedStatement stmt = connection.prepareStatement(query)) {
-                    stmt.setInt(1, limit);
+                    int parameter = 1;
+                    if (after != null) {
+                        stmt.setDouble(parameter++, after.getValue());
+                        stmt.setDouble(parameter++, after.getValue());
+                        stmt.setString(parameter++, after.getSourceId());
+                    }
+                    stmt.setInt(parameter, limit);
                     
                     try (ResultSet rs = stmt.executeQuery()) {
                         // Verificar se há resultados
@@ -808,6 +861,7 @@ public class GenericSQLConnector implements DatabaseConnector {
                         while (rs.next()) {
                             hasResults = true;
                             String uuidString = rs.getString(tableInfo.playerIdColumn);
+                            String sourceId = uuidString;
                             String playerName = rs.getString(tableInfo.playerNameColumn);
                             double value;
                             
@@ -856,7 +910,7 @@ public class GenericSQLConnector implements DatabaseConnector {
                                 }
                             }
 
-                            entries.add(new DatabasePlayerEntry(uuid, playerName, value));
+                            entries.add(new DatabasePlayerEntry(uuid, playerName, value, sourceId));
                             
                             if (debugMode) {
                                 plugin.getLogger().info("Adicionado jogador ao ranking do conector '" + name + "': " + playerName
@@ -903,6 +957,62 @@ public class GenericSQLConnector implements DatabaseConnector {
             return entries;
         }
 
+        /**
+         * Obtém a posição de um jogador: o valor dele e quantos jogadores estão à frente. Valores
+         * iguais são desempatados pelo ID, como na listagem do ranking
+         */
+        public PlayerRank getPlayerRank(String field, UUID playerUUID, boolean ascending) {
+            if (!available || connection == null) {
+                return null;
+            }
+
+            String[] parts = field.split("\\.");
+            TableInfo tableInfo = parts.length == 2 ? tables.get(parts[0]) : null;
+            FieldInfo fieldInfo = tableInfo != null ? tableInfo.fields.get(parts[1]) : null;
+            if (fieldInfo == null) {
+                return null;
+            }
+
+            // O ID pode estar salvo com ou sem hífens
+            String withHyphens = playerUUID.toString();
+            String withoutHyphens = withHyphens.replace("-", "");
+            String valueQuery = "SELECT " + fieldInfo.column + ", " + tableInfo.playerIdColumn + " FROM " + tableInfo.name +
+                    " WHERE (" + tableInfo.playerIdColumn + " = ? OR " + tableInfo.playerIdColumn + " = ?)" +
+                    " AND " + fieldInfo.column + " IS NOT NULL";
+            String aheadQuery = "SELECT COUNT(*) FROM " + tableInfo.name +
+                    " WHERE " + fieldInfo.column + " IS NOT NULL AND (" + fieldInfo.column + (ascending ? " < ?" : " > ?") +
+                    " OR (" + fieldInfo.column + " = ? AND " + tableInfo.playerIdColumn + " < ?))";
+
+            try (PreparedStatement valueStmt = connection.prepareStatement(valueQuery)) {
+                valueStmt.setString(1, withHyphens);
+                valueStmt.setString(2, withoutHyphens);
+                double value;
+                String storedId;
+                try (ResultSet rs = valueStmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    value = rs.getDouble(1);
+                    storedId = rs.getString(2);
+                }
+
+                try (PreparedStatement aheadStmt = connection.prepareStatement(aheadQuery)) {
+                    aheadStmt.setDouble(1, value);
+                    aheadStmt.setDouble(2, value);
+                    aheadStmt.setString(3, storedId);
+                    try (ResultSet rs = aheadStmt.executeQuery()) {
+                        return rs.next() ? new PlayerRank(rs.getInt(1) + 1, value) : null;
+                    }
+                }
+            } catch (SQLException e) {
+                if (debugMode) {
+                    plugin.getLogger().warning("Erro ao consultar posição do jogador no conector SQL '" + name + "': "
+                            + e.getMessage());
+                }
+                return null;
+            }
+        }
+
         /**
          * Fecha a conexão com o banco de dados
          */
@@ -0,0 +1,102 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com custo fixo por amostra e sem alocação.
+ * <p>
+ * Cada potência de 2 (em nanossegundos) é dividida em 8 faixas iguais, então os percentis têm
+ * erro de no máximo 12,5%. Registrar uma amostra é um incremento atômico; os percentis são
+ * calculados só quando consultados. Seguro para uso em várias threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Faixas exatas para 0..7 e 8 faixas para cada potência de 2 de 2^3 a 2^62
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private volatile long last = -1;
+    private volatile long max;
+
+    /**
+     * Registra uma amostra
+     *
+     * @param nanos duração em nanossegundos
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        last = value;
+        // Corrida benigna: no pior caso o máximo perde uma amostra concorrente
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return última amostra registrada em nanossegundos, ou -1 se não houver
+     */
+    public long getLast() {
+        return last;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Calcula um percentil aproximado
+     *
+     * @param percentile valor entre 0 e 100 (ex: 99)
+     * @return limite superior da faixa que contém o percentil, em nanossegundos, ou -1 se vazio
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return -1;
+        }
+
+        long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100.0 * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long width = 1L << (magnitude - SUB_BUCKET_BITS);
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (magnitude - SUB_BUCKET_BITS);
+        return lower + width - 1;
+    }
+}
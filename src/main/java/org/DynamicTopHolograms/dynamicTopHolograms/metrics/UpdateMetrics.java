@@ -0,0 +1,156 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas do ciclo de atualização, por holograma e por conector ("papi" ou o nome do conector):
+ * tempo de consulta, tempo de seleção das posições, tempo de renderização na thread principal,
+ * número de entradas da última consulta e número de erros. Exibidas pelo {@code /dth stats}.
+ * <p>
+ * Uma consulta compartilhada por vários hologramas (mesma fonte) conta uma vez para o conector
+ * e uma vez para cada holograma.
+ * <p>
+ * Só usa contadores e histogramas sem bloqueio, para que o registro não pese no próprio ciclo.
+ */
+public class UpdateMetrics {
+
+    private final Map<String, Stats> holograms = new ConcurrentHashMap<>();
+    private final Map<String, Stats> connectors = new ConcurrentHashMap<>();
+
+    /**
+     * Registra uma consulta a um conector (uma vez por consulta, mesmo se compartilhada)
+     *
+     * @param connectorKey conector da fonte de dados
+     * @param fetchNanos   tempo de consulta à fonte
+     * @param selectNanos  tempo de seleção das primeiras posições
+     * @param entries      número de entradas obtidas
+     */
+    public void recordFetch(String connectorKey, long fetchNanos, long selectNanos, int entries) {
+        stats(connectors, connectorKey).finishRun(fetchNanos, selectNanos, entries);
+    }
+
+    /**
+     * Registra a atualização de um holograma com o resultado de uma consulta
+     *
+     * @param hologramID  ID do holograma
+     * @param fetchNanos  tempo de consulta à fonte
+     * @param selectNanos tempo de seleção das primeiras posições
+     * @param entries     número de entradas obtidas
+     */
+    public void recordUpdate(String hologramID, long fetchNanos, long selectNanos, int entries) {
+        stats(holograms, hologramID).finishRun(fetchNanos, selectNanos, entries);
+    }
+
+    /**
+     * Registra a aplicação de uma página na thread principal
+     *
+     * @param hologramID ID do holograma
+     * @param nanos      tempo gasto no DecentHolograms
+     */
+    public void recordRender(String hologramID, long nanos) {
+        stats(holograms, hologramID).render.record(nanos);
+    }
+
+    /**
+     * Registra uma consulta que falhou (uma vez por consulta, mesmo se compartilhada)
+     *
+     * @param connectorKey conector da fonte de dados
+     */
+    public void recordFetchError(String connectorKey) {
+        stats(connectors, connectorKey).errors.increment();
+    }
+
+    /**
+     * Registra uma atualização de holograma que falhou
+     *
+     * @param hologramID ID do holograma
+     */
+    public void recordError(String hologramID) {
+        stats(holograms, hologramID).errors.increment();
+    }
+
+    /**
+     * @return métricas do holograma, ou null se ele ainda não foi atualizado
+     */
+    public Stats getHologramStats(String hologramID) {
+        return holograms.get(hologramID);
+    }
+
+    /**
+     * @return métricas por conector, em mapa somente leitura
+     */
+    public Map<String, Stats> getConnectorStats() {
+        return Collections.unmodifiableMap(connectors);
+    }
+
+    public void forget(String hologramID) {
+        holograms.remove(hologramID);
+    }
+
+    public void clear() {
+        holograms.clear();
+        connectors.clear();
+    }
+
+    private static Stats stats(Map<String, Stats> map, String key) {
+        return map.computeIfAbsent(key, k -> new Stats());
+    }
+
+    /**
+     * Métricas acumuladas de um holograma ou conector
+     */
+    public static final class Stats {
+        private final LatencyHistogram fetch = new LatencyHistogram();
+        private final LatencyHistogram select = new LatencyHistogram();
+        private final LatencyHistogram render = new LatencyHistogram();
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private volatile int lastEntries = -1;
+        private volatile long lastRunAt;
+
+        private void finishRun(long fetchNanos, long selectNanos, int entries) {
+            fetch.record(fetchNanos);
+            select.record(selectNanos);
+            runs.increment();
+            lastEntries = entries;
+            lastRunAt = System.currentTimeMillis();
+        }
+
+        public LatencyHistogram getFetch() {
+            return fetch;
+        }
+
+        public LatencyHistogram getSelect() {
+            return select;
+        }
+
+        public LatencyHistogram getRender() {
+            return render;
+        }
+
+        public long getRuns() {
+            return runs.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /**
+         * @return entradas obtidas na última consulta, ou -1 se não houve
+         */
+        public int getLastEntries() {
+            return lastEntries;
+        }
+
+        /**
+         * @return horário da última consulta (milissegundos desde a época), ou 0 se não houve
+         */
+        public long getLastRunAt() {
+            return lastRunAt;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.placeholders;
+
+import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.DynamicTopHolograms.dynamicTopHolograms.RankingHologramManager;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.HologramConfig;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
+import org.bukkit.OfflinePlayer;
+
+import static org.bukkit.ChatColor.translateAlternateColorCodes;
+
+/**
+ * Placeholders do plugin, resolvidos para o jogador que está vendo:
+ * <ul>
+ * <li>{@code %dth_viewer_<holograma>%}: linha {@code viewer-line} do holograma</li>
+ * <li>{@code %dth_rank_<holograma>%}: posição do jogador no ranking</li>
+ * <li>{@code %dth_value_<holograma>%}: valor do jogador, com o {@code value-format} do holograma</li>
+ * </ul>
+ * As posições vêm do {@link ViewerRankCache}; para jogadores online nenhuma consulta é feita
+ * durante a resolução.
+ */
+public class DynamicTopExpansion extends PlaceholderExpansion {
+
+    private static final String LOADING = translateAlternateColorCodes('&', "&7Carregando sua posição...");
+    private static final String NOT_RANKED = translateAlternateColorCodes('&', "&7Você ainda não está no ranking.");
+    private static final String NO_VALUE = "-";
+
+    private final DynamicTopHolograms plugin;
+    private final RankingHologramManager hologramManager;
+    private final ViewerRankCache rankCache;
+
+    public DynamicTopExpansion(DynamicTopHolograms plugin, RankingHologramManager hologramManager,
+            ViewerRankCache rankCache) {
+        this.plugin = plugin;
+        this.hologramManager = hologramManager;
+        this.rankCache = rankCache;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return "dth";
+    }
+
+    @Override
+    public String getAuthor() {
+        return String.join(", ", plugin.getDescription().getAuthors());
+    }
+
+    @Override
+    public String getVersion() {
+        return plugin.getDescription().getVersion();
+    }
+
+    @Override
+    public boolean persist() {
+        return true; // Continua registrada após /papi reload
+    }
+
+    @Override
+    public String onRequest(OfflinePlayer player, String params) {
+        // Formato: <tipo>_<holograma>; o ID do holograma pode conter "_"
+        int separator = params.indexOf('_');
+        if (separator <= 0 || separator == params.length() - 1) {
+            return null;
+        }
+        String type = params.substring(0, separator);
+        String hologramID = params.substring(separator + 1);
+        HologramConfig config = hologramManager.getHologramConfig(hologramID);
+        if (config == null || !"viewer".equals(type) && !"rank".equals(type) && !"value".equals(type)) {
+            return null;
+        }
+        if (player == null) {
+            return "";
+        }
+
+        ViewerRankCache.Lookup lookup = rankCache.get(hologramID, player);
+        PlayerRank rank = lookup != null ? lookup.getRank() : null;
+        switch (type) {
+            case "rank":
+                return rank != null ? String.valueOf(rank.getRank()) : NO_VALUE;
+            case "value":
+                return rank != null ? config.getValueFormatter().format(rank.getValue()) : NO_VALUE;
+            default:
+                if (!config.hasViewerLine()) {
+                    return "";
+                }
+                if (lookup == null) {
+                    return LOADING;
+                }
+                if (rank == null) {
+                    return NOT_RANKED;
+                }
+                String[] values = new String[3];
+                values[HologramConfig.VAR_RANK] = String.valueOf(rank.getRank());
+                values[HologramConfig.VAR_PLAYER] = player.getName() != null ? player.getName() : "";
+                values[HologramConfig.VAR_VALUE] = config.getValueFormatter().format(rank.getValue());
+                return config.getViewerLineTemplate().apply(values);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.placeholders;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.RankingHologramManager;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Posição de cada jogador nos rankings, usada na linha "sua posição" dos hologramas.
+ * <p>
+ * O DecentHolograms resolve a linha para cada jogador que vê o holograma, várias vezes por
+ * segundo. Por isso a posição nunca é consultada na hora: o valor guardado é devolvido, mesmo
+ * que vencido, e a consulta ({@link RankingHologramManager#lookupRankAsync}) é feita fora da thread
+ * principal, com os limites de concorrência do conector, no máximo uma vez por jogador e holograma
+ * a cada intervalo de atualização do holograma.
+ * Só jogadores online são guardados, e as entradas de um jogador são descartadas quando ele sai do
+ * servidor. Para um jogador offline (placeholder resolvido por outro plugin) a posição é consultada
+ * na hora, se a chamada vier de fora da thread principal, e não fica guardada.
+ */
+public class ViewerRankCache implements Listener {
+
+    private final RankingHologramManager hologramManager;
+    // UUID do jogador -> ID do holograma -> posição consultada
+    private final Map<UUID, Map<String, Lookup>> lookups = new ConcurrentHashMap<>();
+
+    public ViewerRankCache(RankingHologramManager hologramManager) {
+        this.hologramManager = hologramManager;
+    }
+
+    /**
+     * Obtém a posição de um jogador, agendando uma nova consulta se a guardada venceu
+     *
+     * @param hologramID ID do holograma
+     * @param player     jogador
+     * @return última consulta concluída, ou null se a primeira ainda está em andamento (ou se o
+     *         jogador está offline e a chamada veio da thread principal)
+     */
+    public Lookup get(String hologramID, OfflinePlayer player) {
+        UUID playerUUID = player.getUniqueId();
+        if (!player.isOnline()) {
+            // Sem entrada no mapa: ela só seria descartada em uma saída do servidor que não vem
+            return Bukkit.isPrimaryThread() ? null
+                    : Lookup.loaded(hologramManager.lookupRankAsync(hologramID, playerUUID).join(), 0);
+        }
+
+        Map<String, Lookup> playerLookups = lookups.computeIfAbsent(playerUUID, k -> new ConcurrentHashMap<>());
+        Lookup current = playerLookups.get(hologramID);
+        long now = System.currentTimeMillis();
+        if (current != null && now < current.expiresAt) {
+            return current.loaded ? current : null;
+        }
+
+        // Apenas quem troca a entrada agenda a consulta; os demais seguem com o valor anterior
+        Lookup pending = current != null ? current.refreshing(now) : Lookup.loading(now);
+        boolean claimed = current != null
+                ? playerLookups.replace(hologramID, current, pending)
+                : playerLookups.putIfAbsent(hologramID, pending) == null;
+        if (claimed) {
+            refresh(hologramID, playerUUID);
+        }
+        return current != null && current.loaded ? current : null;
+    }
+
+    /**
+     * Descarta as posições guardadas de um holograma (ex: holograma removido ou reconfigurado)
+     *
+     * @param hologramID ID do holograma
+     */
+    public void invalidate(String hologramID) {
+        for (Map<String, Lookup> playerLookups : lookups.values()) {
+            playerLookups.remove(hologramID);
+        }
+    }
+
+    public void clear() {
+        lookups.clear();
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        lookups.remove(event.getPlayer().getUniqueId());
+    }
+
+    private void refresh(String hologramID, UUID playerUUID) {
+        hologramManager.lookupRankAsync(hologramID, playerUUID).whenComplete((rank, error) -> {
+            long ttl = hologramManager.getUpdateIntervalMinutes(hologramID) * 60_000L;
+            Map<String, Lookup> playerLookups = lookups.get(playerUUID);
+            if (playerLookups != null) { // O jogador pode ter saído durante a consulta
+                playerLookups.put(hologramID, Lookup.loaded(error == null ? rank : null,
+                        System.currentTimeMillis() + ttl));
+            }
+        });
+    }
+
+    /**
+     * Resultado de uma consulta de posição
+     */
+    public static final class Lookup {
+        // Tempo máximo de uma consulta em andamento antes de outra poder ser agendada
+        private static final long LOADING_TIMEOUT_MILLIS = 30_000L;
+
+        private final PlayerRank rank;
+        private final boolean loaded;
+        private final long expiresAt;
+
+        private Lookup(PlayerRank rank, boolean loaded, long expiresAt) {
+            this.rank = rank;
+            this.loaded = loaded;
+            this.expiresAt = expiresAt;
+        }
+
+        static Lookup loaded(PlayerRank rank, long expiresAt) {
+            return new Lookup(rank, true, expiresAt);
+        }
+
+        static Lookup loading(long now) {
+            return new Lookup(null, false, now + LOADING_TIMEOUT_MILLIS);
+        }
+
+        // Mantém o valor anterior visível enquanto a nova consulta não termina
+        Lookup refreshing(long now) {
+            return new Lookup(rank, loaded, now + LOADING_TIMEOUT_MILLIS);
+        }
+
+        /**
+         * @return posição do jogador, ou null se ele não estiver no ranking
+         */
+        public PlayerRank getRank() {
+            return rank;
+        }
+    }
+}
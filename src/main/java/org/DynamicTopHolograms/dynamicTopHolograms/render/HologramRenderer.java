@@ -0,0 +1,162 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.render;
+
+import eu.decentsoftware.holograms.api.DHAPI;
+import eu.decentsoftware.holograms.api.holograms.Hologram;
+import eu.decentsoftware.holograms.api.holograms.HologramLine;
+import eu.decentsoftware.holograms.api.holograms.HologramPage;
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Aplica o conteúdo dos hologramas de ranking alterando apenas as linhas que mudaram.
+ * <p>
+ * Guarda, para cada holograma, a referência do {@link Hologram} e a última lista de linhas
+ * renderizada em cada página. Linhas só são adicionadas ou removidas quando a quantidade muda,
+ * e páginas só são criadas ou removidas quando o número de páginas do holograma muda.
+ * <p>
+ * Todos os métodos devem ser chamados na thread principal.
+ */
+public class HologramRenderer {
+
+    private static final String LOADING_LINE = ChatColor.translateAlternateColorCodes('&', "&7Carregando...");
+
+    private final Map<String, RenderState> states = new HashMap<>();
+
+    /**
+     * Renderiza as linhas na primeira página de um holograma de página única
+     *
+     * @see #render(String, int, int, List)
+     */
+    public boolean render(String hologramID, List<String> lines) {
+        return render(hologramID, 0, 1, lines);
+    }
+
+    /**
+     * Renderiza as linhas em uma página do holograma, aplicando apenas as diferenças
+     *
+     * @param hologramID ID do holograma
+     * @param page       índice da página (0 = primeira)
+     * @param pageCount  número total de páginas do holograma; páginas que faltam são criadas
+     *                   com uma linha de carregamento, e as excedentes são removidas
+     * @param lines      linhas completas (título incluído), já com cores traduzidas
+     * @return false se o holograma não existe mais no DecentHolograms
+     */
+    public boolean render(String hologramID, int page, int pageCount, List<String> lines) {
+        RenderState state = resolve(hologramID);
+        if (state == null) {
+            return false;
+        }
+
+        Hologram hologram = state.hologram;
+        if (page == 0) {
+            ensurePageCount(state, pageCount, lines.isEmpty() ? LOADING_LINE : lines.get(0));
+        }
+        if (page >= state.pages.size()) {
+            return true; // Página de uma configuração anterior, com mais páginas
+        }
+
+        List<String> previous = state.pages.get(page);
+        int common = Math.min(previous.size(), lines.size());
+
+        for (int i = 0; i < common; i++) {
+            String line = lines.get(i);
+            if (!Objects.equals(previous.get(i), line)) {
+                DHAPI.setHologramLine(hologram, page, i, line);
+            }
+        }
+
+        // Novas linhas no final
+        for (int i = common; i < lines.size(); i++) {
+            DHAPI.addHologramLine(hologram, page, lines.get(i));
+        }
+
+        // Linhas excedentes, removidas de trás para frente
+        for (int i = previous.size() - 1; i >= lines.size(); i--) {
+            DHAPI.removeHologramLine(hologram, page, i);
+        }
+
+        state.pages.set(page, new ArrayList<>(lines));
+        return true;
+    }
+
+    /**
+     * Descarta o estado em cache de um holograma (removido, recriado ou recarregado)
+     *
+     * @param hologramID ID do holograma
+     */
+    public void invalidate(String hologramID) {
+        states.remove(hologramID);
+    }
+
+    /**
+     * Descarta o estado em cache de todos os hologramas
+     */
+    public void clear() {
+        states.clear();
+    }
+
+    private void ensurePageCount(RenderState state, int pageCount, String title) {
+        int target = Math.max(1, pageCount);
+        while (state.pages.size() < target) {
+            List<String> placeholder = List.of(title, LOADING_LINE);
+            DHAPI.addHologramPage(state.hologram, placeholder);
+            state.pages.add(new ArrayList<>(placeholder));
+        }
+        while (state.pages.size() > target) {
+            int last = state.pages.size() - 1;
+            DHAPI.removeHologramPage(state.hologram, last);
+            state.pages.remove(last);
+        }
+    }
+
+    private RenderState resolve(String hologramID) {
+        RenderState state = states.get(hologramID);
+        if (state != null && state.hologram.isEnabled()) {
+            return state;
+        }
+
+        Hologram hologram = DHAPI.getHologram(hologramID);
+        if (hologram == null) {
+            states.remove(hologramID);
+            return null;
+        }
+
+        // Partir do conteúdo atual do holograma para que o primeiro diff seja correto
+        state = new RenderState(hologram, readPages(hologram));
+        states.put(hologramID, state);
+        return state;
+    }
+
+    private List<List<String>> readPages(Hologram hologram) {
+        List<List<String>> pages = new ArrayList<>();
+        List<HologramPage> hologramPages = hologram.getPages();
+        if (hologramPages != null) {
+            for (HologramPage page : hologramPages) {
+                List<String> lines = new ArrayList<>();
+                for (HologramLine line : page.getLines()) {
+                    lines.add(line.getContent());
+                }
+                pages.add(lines);
+            }
+        }
+        if (pages.isEmpty()) {
+            pages.add(new ArrayList<>());
+        }
+        return pages;
+    }
+
+    private static class RenderState {
+        final Hologram hologram;
+        final List<List<String>> pages;
+
+        RenderState(Hologram hologram, List<List<String>> pages) {
+            this.hologram = hologram;
+            this.pages = pages;
+        }
+    }
+}
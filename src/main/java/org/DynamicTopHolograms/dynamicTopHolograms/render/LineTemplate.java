@@ -0,0 +1,102 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.render;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato de linha pré-compilado.
+ * <p>
+ * O texto é dividido uma única vez em trechos fixos e variáveis (ex: {@code {rank}}), com os
+ * códigos de cor já traduzidos nos trechos fixos. Montar uma linha é apenas uma passada de
+ * {@code append} em um {@link StringBuilder}. Os valores inseridos não passam pela tradução de
+ * cores, então nomes de jogadores com {@code &} aparecem como foram escritos.
+ */
+public final class LineTemplate {
+
+    private final String source;
+    // literals[i] vem antes da variável variables[i]; o último trecho fixo fica em literals[variables.length]
+    private final String[] literals;
+    private final int[] variables;
+    private final int literalLength;
+
+    private LineTemplate(String source, String[] literals, int[] variables) {
+        this.source = source;
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compila um formato
+     *
+     * @param source    texto original, com códigos de cor usando {@code &}
+     * @param variables nomes das variáveis reconhecidas (ex: "{rank}"), na ordem em que os valores
+     *                  serão passados para {@link #apply(String...)}
+     * @return formato compilado
+     */
+    public static LineTemplate compile(String source, String... variables) {
+        String text = source != null ? source : "";
+        List<String> literals = new ArrayList<>();
+        List<Integer> order = new ArrayList<>();
+
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            int matched = -1;
+            if (text.charAt(i) == '{') {
+                for (int v = 0; v < variables.length; v++) {
+                    if (text.startsWith(variables[v], i)) {
+                        matched = v;
+                        break;
+                    }
+                }
+            }
+            if (matched >= 0) {
+                literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+                order.add(matched);
+                literal.setLength(0);
+                i += variables[matched].length();
+            } else {
+                literal.append(text.charAt(i));
+                i++;
+            }
+        }
+        literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+
+        int[] variableOrder = new int[order.size()];
+        for (int v = 0; v < variableOrder.length; v++) {
+            variableOrder[v] = order.get(v);
+        }
+        return new LineTemplate(text, literals.toArray(new String[0]), variableOrder);
+    }
+
+    /**
+     * Monta a linha
+     *
+     * @param values valores das variáveis, na ordem usada em {@link #compile(String, String...)}
+     * @return linha final, com cores
+     */
+    public String apply(String... values) {
+        if (variables.length == 0) {
+            return literals[0];
+        }
+        StringBuilder builder = new StringBuilder(literalLength + 16 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            builder.append(literals[i]).append(values[variables[i]]);
+        }
+        return builder.append(literals[variables.length]).toString();
+    }
+
+    /**
+     * @return texto original, como configurado
+     */
+    public String getSource() {
+        return source;
+    }
+}
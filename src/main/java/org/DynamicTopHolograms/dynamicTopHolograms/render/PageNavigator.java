@@ -0,0 +1,53 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.render;
+
+import eu.decentsoftware.holograms.api.actions.ClickType;
+import eu.decentsoftware.holograms.api.holograms.Hologram;
+import eu.decentsoftware.holograms.event.HologramClickEvent;
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.DynamicTopHolograms.dynamicTopHolograms.RankingHologramManager;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.HologramConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+/**
+ * Troca a página exibida de um holograma de ranking dividido em páginas ({@code page-size}).
+ * <p>
+ * Clique esquerdo avança e clique direito volta. A página aberta é consultada nesse momento,
+ * caso ainda não esteja atualizada; até lá, o jogador vê o conteúdo anterior ou uma linha de
+ * carregamento.
+ */
+public class PageNavigator implements Listener {
+
+    private final DynamicTopHolograms plugin;
+    private final RankingHologramManager hologramManager;
+
+    public PageNavigator(DynamicTopHolograms plugin, RankingHologramManager hologramManager) {
+        this.plugin = plugin;
+        this.hologramManager = hologramManager;
+    }
+
+    @EventHandler
+    public void onHologramClick(HologramClickEvent event) {
+        Hologram hologram = event.getHologram();
+        Player player = event.getPlayer();
+        if (hologram == null || player == null) {
+            return;
+        }
+
+        HologramConfig config = hologramManager.getHologramConfig(hologram.getName());
+        if (config == null || config.getPageCount() <= 1) {
+            return;
+        }
+
+        int pageCount = config.getPageCount();
+        int current = Math.min(hologram.getPlayerPage(player), pageCount - 1);
+        boolean back = event.getClick() == ClickType.RIGHT || event.getClick() == ClickType.SHIFT_RIGHT;
+        int target = back ? (current - 1 + pageCount) % pageCount : (current + 1) % pageCount;
+
+        hologramManager.requestPage(hologram.getName(), target);
+        // O evento pode vir de fora da thread principal
+        Bukkit.getScheduler().runTask(plugin, () -> hologram.show(player, target));
+    }
+}
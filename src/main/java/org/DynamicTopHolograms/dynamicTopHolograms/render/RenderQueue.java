@@ -0,0 +1,176 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.render;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.DynamicTopHolograms.dynamicTopHolograms.metrics.UpdateMetrics;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Fila central de renderização dos hologramas de ranking.
+ * <p>
+ * As atualizações podem ser enviadas de qualquer thread. Cada página de holograma guarda apenas
+ * o conteúdo mais recente enviado; versões anteriores ainda não aplicadas são descartadas.
+ * A fila é esvaziada na thread principal, a cada tick, respeitando um orçamento de tempo
+ * ({@code render-budget-micros}); o que sobrar fica para o próximo tick.
+ */
+public class RenderQueue {
+
+    private final DynamicTopHolograms plugin;
+    private final HologramRenderer renderer;
+    private final UpdateMetrics metrics;
+    private final Consumer<String> onHologramMissing;
+
+    // Conteúdo pendente por página e ordem de chegada (cada página aparece no máximo uma vez)
+    private final Map<Target, Pending> pending = new ConcurrentHashMap<>();
+    private final Queue<Target> order = new ConcurrentLinkedQueue<>();
+    // Geração mais recente enviada por página
+    private final Map<Target, Long> newestGeneration = new ConcurrentHashMap<>();
+    private BukkitTask task;
+
+    public RenderQueue(DynamicTopHolograms plugin, HologramRenderer renderer, UpdateMetrics metrics,
+            Consumer<String> onHologramMissing) {
+        this.plugin = plugin;
+        this.renderer = renderer;
+        this.metrics = metrics;
+        this.onHologramMissing = onHologramMissing;
+    }
+
+    public void start() {
+        stop();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Enfileira o conteúdo de um holograma de página única
+     *
+     * @see #submit(String, int, int, long, List)
+     */
+    public boolean submit(String hologramID, long generation, List<String> lines) {
+        return submit(hologramID, 0, 1, generation, lines);
+    }
+
+    /**
+     * Enfileira o conteúdo de uma página, substituindo qualquer conteúdo ainda não aplicado.
+     * Conteúdo de uma geração mais antiga que a última enviada para a mesma página é ignorado,
+     * para que uma consulta lenta nunca sobrescreva um resultado mais novo.
+     *
+     * @param hologramID ID do holograma
+     * @param page       índice da página (0 = primeira)
+     * @param pageCount  número total de páginas do holograma
+     * @param generation geração da consulta que produziu o conteúdo (crescente)
+     * @param lines      linhas completas, já com cores traduzidas
+     * @return false se o conteúdo foi descartado por ser antigo
+     */
+    public synchronized boolean submit(String hologramID, int page, int pageCount, long generation,
+            List<String> lines) {
+        Target target = new Target(hologramID, page);
+        Long newest = newestGeneration.get(target);
+        if (newest != null && newest > generation) {
+            return false;
+        }
+        newestGeneration.put(target, generation);
+
+        if (pending.put(target, new Pending(pageCount, lines)) == null) {
+            order.add(target);
+        }
+        return true;
+    }
+
+    /**
+     * Descarta o conteúdo pendente de um holograma (ex: holograma removido)
+     *
+     * @param hologramID ID do holograma
+     */
+    public synchronized void discard(String hologramID) {
+        pending.keySet().removeIf(target -> target.hologramID.equals(hologramID));
+        newestGeneration.keySet().removeIf(target -> target.hologramID.equals(hologramID));
+    }
+
+    /**
+     * @return número de páginas aguardando renderização
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    private void drain() {
+        if (order.isEmpty()) {
+            return;
+        }
+
+        long budgetNanos = plugin.getConfigManager().getRenderBudgetMicros() * 1000L;
+        long start = System.nanoTime();
+
+        // Pelo menos uma página por tick, para garantir progresso mesmo com orçamento muito baixo
+        do {
+            Target target = order.poll();
+            if (target == null) {
+                return;
+            }
+
+            Pending content = pending.remove(target);
+            if (content == null) {
+                continue; // Descartado depois de enfileirado
+            }
+
+            long renderStart = System.nanoTime();
+            if (!renderer.render(target.hologramID, target.page, content.pageCount, content.lines)) {
+                onHologramMissing.accept(target.hologramID);
+            } else {
+                metrics.recordRender(target.hologramID, System.nanoTime() - renderStart);
+            }
+        } while (System.nanoTime() - start < budgetNanos);
+    }
+
+    private static final class Target {
+        final String hologramID;
+        final int page;
+
+        Target(String hologramID, int page) {
+            this.hologramID = hologramID;
+            this.page = page;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Target)) {
+                return false;
+            }
+            Target other = (Target) o;
+            return page == other.page && hologramID.equals(other.hologramID);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hologramID, page);
+        }
+    }
+
+    private static final class Pending {
+        final int pageCount;
+        final List<String> lines;
+
+        Pending(int pageCount, List<String> lines) {
+            this.pageCount = pageCount;
+            this.lines = lines;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.render;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formata os valores exibidos no ranking, escolhido por holograma com a opção
+ * {@code value-format} do holograms.yml:
+ * <ul>
+ * <li>{@code grouped} (padrão): inteiro com separador de milhar, ex: {@code 1.234.567}</li>
+ * <li>{@code fixed:N}: N casas decimais (0 a 6), ex: {@code fixed:2} → {@code 1.234,50}</li>
+ * <li>{@code compact}: abreviado, ex: {@code 1,2K}, {@code 3,4M}, {@code 5B}, {@code 7T}</li>
+ * <li>{@code duration[:unidade]}: {@code hh:mm:ss}; a unidade do valor é {@code seconds}
+ * (padrão), {@code ticks}, {@code millis} ou {@code minutes}</li>
+ * </ul>
+ * Os separadores seguem o locale padrão do servidor, como o {@code String.format("%,.0f")}
+ * usado antes. A formatação escreve os dígitos direto em um {@link StringBuilder}, sem
+ * interpretar um padrão a cada chamada; valores grandes demais para o arredondamento em
+ * {@code long} usam o {@link java.util.Formatter}, no mesmo estilo.
+ */
+public final class ValueFormatter {
+
+    public static final String DEFAULT_SPEC = "grouped";
+    public static final ValueFormatter GROUPED = new ValueFormatter(DEFAULT_SPEC, Style.GROUPED, 0, 1);
+
+    private static final int MAX_DECIMALS = 6;
+    private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L };
+    private static final char[] COMPACT_SUFFIXES = { 'K', 'M', 'B', 'T' };
+    // Acima disso (já multiplicado pela escala) o arredondamento em long perde precisão ou
+    // transborda; usa o formatador padrão
+    private static final double FAST_PATH_LIMIT = 1e15;
+
+    private enum Style {
+        GROUPED, FIXED, COMPACT, DURATION
+    }
+
+    private final String spec;
+    private final Style style;
+    private final int decimals;
+    // Para DURATION: quantas unidades do valor formam um segundo
+    private final double unitsPerSecond;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+
+    private ValueFormatter(String spec, Style style, int decimals, double unitsPerSecond) {
+        this.spec = spec;
+        this.style = style;
+        this.decimals = decimals;
+        this.unitsPerSecond = unitsPerSecond;
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+    }
+
+    /**
+     * Interpreta uma opção {@code value-format}
+     *
+     * @param spec texto da opção (ex: "fixed:2"); null ou vazio resulta no formato padrão
+     * @return formatador, ou null se a opção não for reconhecida
+     */
+    public static ValueFormatter parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return GROUPED;
+        }
+        String normalized = spec.trim().toLowerCase(Locale.ROOT);
+        int colon = normalized.indexOf(':');
+        String name = colon >= 0 ? normalized.substring(0, colon) : normalized;
+        String argument = colon >= 0 ? normalized.substring(colon + 1) : null;
+
+        switch (name) {
+            case "grouped":
+                return argument == null ? GROUPED : null;
+            case "fixed":
+                try {
+                    int decimals = argument == null ? 2 : Integer.parseInt(argument);
+                    if (decimals < 0 || decimals > MAX_DECIMALS) {
+                        return null;
+                    }
+                    return new ValueFormatter(normalized, Style.FIXED, decimals, 1);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            case "compact":
+                return argument == null ? new ValueFormatter(normalized, Style.COMPACT, 1, 1) : null;
+            case "duration":
+                double unitsPerSecond;
+                switch (argument == null ? "seconds" : argument) {
+                    case "seconds":
+                        unitsPerSecond = 1;
+                        break;
+                    case "ticks":
+                        unitsPerSecond = 20;
+                        break;
+                    case "millis":
+                        unitsPerSecond = 1000;
+                        break;
+                    case "minutes":
+                        unitsPerSecond = 1.0 / 60;
+                        break;
+                    default:
+                        return null;
+                }
+                return new ValueFormatter(normalized, Style.DURATION, 0, unitsPerSecond);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Formata um valor
+     *
+     * @param value valor do ranking
+     * @return texto formatado
+     */
+    public String format(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return String.format("%,.0f", value);
+        }
+        if (!fitsFastPath(Math.abs(value))) {
+            return formatLarge(value);
+        }
+
+        // A renderização roda em threads virtuais, uma por tarefa: um buffer por thread não seria
+        // reaproveitado, então cada chamada usa um builder pequeno
+        StringBuilder builder = new StringBuilder(24);
+        switch (style) {
+            case FIXED:
+                appendFixed(builder, value, decimals);
+                break;
+            case COMPACT:
+                appendCompact(builder, value);
+                break;
+            case DURATION:
+                appendDuration(builder, value);
+                break;
+            default:
+                appendFixed(builder, value, 0);
+                break;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return opção normalizada, como aceita por {@link #parse(String)}
+     */
+    public String getSpec() {
+        return spec;
+    }
+
+    private boolean fitsFastPath(double abs) {
+        switch (style) {
+            case FIXED:
+                return abs * POWERS_OF_TEN[decimals] < FAST_PATH_LIMIT;
+            case DURATION:
+                return abs / unitsPerSecond < FAST_PATH_LIMIT;
+            default:
+                return abs < FAST_PATH_LIMIT;
+        }
+    }
+
+    // Mesmo estilo do caminho rápido, pelo Formatter, para valores muito grandes
+    private String formatLarge(double value) {
+        switch (style) {
+            case FIXED:
+                return String.format("%,." + decimals + "f", value);
+            case COMPACT:
+                // Acima de 1e15 a unidade já é a maior (T); só a parte inteira cresce
+                String scaled = String.format("%,.1f", Math.abs(value) / 1e12);
+                if (scaled.endsWith(decimalSeparator + "0")) {
+                    scaled = scaled.substring(0, scaled.length() - 2);
+                }
+                return (value < 0 ? "-" : "") + scaled + COMPACT_SUFFIXES[COMPACT_SUFFIXES.length - 1];
+            case DURATION:
+                double totalSeconds = Math.floor(Math.abs(value) / unitsPerSecond + 0.5);
+                double hours = Math.floor(totalSeconds / 3600);
+                int rest = (int) Math.max(0, Math.min(3599, totalSeconds - hours * 3600));
+                return String.format("%s%.0f:%02d:%02d", value < 0 ? "-" : "", hours, rest / 60, rest % 60);
+            default:
+                return String.format("%,.0f", value);
+        }
+    }
+
+    private void appendFixed(StringBuilder builder, double value, int decimals) {
+        long scale = POWERS_OF_TEN[decimals];
+        // Arredondamento "metade para cima" sobre o valor absoluto, como o Formatter
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) {
+            builder.append('-');
+        }
+        appendGrouped(builder, scaled / scale);
+        if (decimals > 0) {
+            builder.append(decimalSeparator);
+            appendPadded(builder, scaled % scale, decimals);
+        }
+    }
+
+    private void appendCompact(StringBuilder builder, double value) {
+        double abs = Math.abs(value);
+        // 999,5 arredondaria para "1.000"; a partir daí já usa "1K"
+        if (abs < 999.5) {
+            appendFixed(builder, value, 0);
+            return;
+        }
+
+        int unit = 0;
+        double scaled = abs / 1000;
+        while (unit < COMPACT_SUFFIXES.length - 1 && scaled >= 1000) {
+            scaled /= 1000;
+            unit++;
+        }
+        long tenths = Math.round(scaled * 10);
+        // 999.95K arredonda para 1000.0K; passa para a próxima unidade
+        if (tenths >= 10_000 && unit < COMPACT_SUFFIXES.length - 1) {
+            tenths = Math.round(scaled / 100);
+            unit++;
+        }
+
+        if (value < 0) {
+            builder.append('-');
+        }
+        appendGrouped(builder, tenths / 10);
+        if (tenths % 10 != 0) {
+            builder.append(decimalSeparator).append((char) ('0' + tenths % 10));
+        }
+        builder.append(COMPACT_SUFFIXES[unit]);
+    }
+
+    private void appendDuration(StringBuilder builder, double value) {
+        long totalSeconds = Math.round(Math.abs(value) / unitsPerSecond);
+        if (value < 0 && totalSeconds != 0) {
+            builder.append('-');
+        }
+        appendPadded(builder, totalSeconds / 3600, 2);
+        builder.append(':');
+        appendPadded(builder, totalSeconds / 60 % 60, 2);
+        builder.append(':');
+        appendPadded(builder, totalSeconds % 60, 2);
+    }
+
+    // Escreve um inteiro não negativo com separador de milhar
+    private void appendGrouped(StringBuilder builder, long number) {
+        int start = builder.length();
+        int digits = 0;
+        do {
+            if (digits > 0 && digits % 3 == 0) {
+                builder.append(groupingSeparator);
+            }
+            builder.append((char) ('0' + number % 10));
+            number /= 10;
+            digits++;
+        } while (number > 0);
+        reverse(builder, start, builder.length() - 1);
+    }
+
+    // Escreve um inteiro não negativo com pelo menos "width" dígitos
+    private static void appendPadded(StringBuilder builder, long number, int width) {
+        int start = builder.length();
+        int digits = 0;
+        do {
+            builder.append((char) ('0' + number % 10));
+            number /= 10;
+            digits++;
+        } while (number > 0);
+        for (; digits < width; digits++) {
+            builder.append('0');
+        }
+        reverse(builder, start, builder.length() - 1);
+    }
+
+    private static void reverse(StringBuilder builder, int from, int to) {
+        while (from < to) {
+            char c = builder.charAt(from);
+            builder.setCharAt(from++, builder.charAt(to));
+            builder.setCharAt(to--, c);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.sampling;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cache da saída do PlaceholderAPI por (jogador, placeholder).
+ * <p>
+ * O mesmo placeholder de um jogador é pedido por vários hologramas e por atualizações forçadas,
+ * e algumas expansões consultam um banco de dados a cada chamada. Cada
+ * saída fica guardada pelo tempo de {@code placeholder-cache.ttl-seconds}, que pode ser definido
+ * por placeholder em {@code placeholder-cache.ttl-overrides}. O total de entradas é limitado por
+ * {@code placeholder-cache.max-entries}; ao passar do limite, sai a usada há mais tempo. As
+ * entradas de um jogador são descartadas nas capturas dos eventos de jogador e quando ele sai do
+ * servidor.
+ * <p>
+ * Usado na thread principal; os métodos são sincronizados só para a leitura das estatísticas.
+ */
+public class PlaceholderCache {
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<Key, Entry>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Map<String, Long> ttlOverrides = new HashMap<>();
+    private long defaultTtlMillis = 30_000L;
+    private int maxEntries = 10_000;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Lê a configuração e descarta o conteúdo atual
+     *
+     * @param section seção {@code placeholder-cache} do config.yml (pode ser null)
+     */
+    public synchronized void load(ConfigurationSection section) {
+        entries.clear();
+        ttlOverrides.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        if (section == null) {
+            defaultTtlMillis = 30_000L;
+            maxEntries = 10_000;
+            return;
+        }
+        defaultTtlMillis = Math.max(0, section.getLong("ttl-seconds", 30)) * 1000L;
+        maxEntries = Math.max(1, section.getInt("max-entries", 10_000));
+        ConfigurationSection overrides = section.getConfigurationSection("ttl-overrides");
+        if (overrides != null) {
+            // Chaves podem vir sem os '%' para não exigir aspas no YAML; ex: "vault_eco_balance: 10"
+            for (String placeholder : overrides.getKeys(false)) {
+                ttlOverrides.put(normalize(placeholder), Math.max(0, overrides.getLong(placeholder)) * 1000L);
+            }
+        }
+    }
+
+    /**
+     * Devolve a saída guardada ou resolve de novo se ela expirou
+     *
+     * @param uuid        jogador
+     * @param placeholder placeholder do PAPI (ex: "%vault_eco_balance%")
+     * @param resolver    chamada ao PlaceholderAPI
+     * @return saída do placeholder
+     */
+    public synchronized String get(UUID uuid, String placeholder, Supplier<String> resolver) {
+        long ttl = ttlOf(placeholder);
+        if (ttl <= 0) {
+            misses++;
+            return resolver.get();
+        }
+        Key key = new Key(uuid, placeholder);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && now < entry.expiresAt) {
+            hits++;
+            return entry.output;
+        }
+        misses++;
+        String output = resolver.get();
+        entries.put(key, new Entry(output, now + ttl));
+        return output;
+    }
+
+    /**
+     * Descarta todas as saídas guardadas de um jogador
+     *
+     * @param uuid jogador
+     */
+    public synchronized void invalidate(UUID uuid) {
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().uuid.equals(uuid)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    public synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    private long ttlOf(String placeholder) {
+        if (ttlOverrides.isEmpty()) {
+            return defaultTtlMillis;
+        }
+        Long ttl = ttlOverrides.get(placeholder);
+        return ttl != null ? ttl : defaultTtlMillis;
+    }
+
+    // Mesmo formato usado pelos hologramas: "%vault_eco_balance%"
+    private static String normalize(String placeholder) {
+        String trimmed = placeholder.trim();
+        return trimmed.startsWith("%") ? trimmed : "%" + trimmed + "%";
+    }
+
+    private static final class Key {
+        final UUID uuid;
+        final String placeholder;
+        final int hash;
+
+        Key(UUID uuid, String placeholder) {
+            this.uuid = uuid;
+            this.placeholder = placeholder;
+            this.hash = 31 * uuid.hashCode() + placeholder.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return uuid.equals(other.uuid) && placeholder.equals(other.placeholder);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final String output;
+        final long expiresAt;
+
+        Entry(String output, long expiresAt) {
+            this.output = output;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
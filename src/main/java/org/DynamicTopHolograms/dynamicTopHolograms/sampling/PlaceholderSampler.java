@@ -0,0 +1,327 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.sampling;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Resolve os placeholders do PlaceholderAPI na thread principal, em lotes divididos entre ticks.
+ * <p>
+ * Muitas expansões não são seguras fora da thread principal, e algumas são lentas (saldo do
+ * Vault, estatísticas). Por isso o ciclo de atualização não chama o PlaceholderAPI diretamente:
+ * ele reúne os placeholders distintos dos hologramas do ciclo e pede uma única varredura
+ * ({@link #sample(Collection)}), que visita cada jogador online uma vez e resolve todos eles.
+ * O resultado é esperado na thread do ciclo. A cada tick são visitados no máximo
+ * {@code sampling.players-per-tick} jogadores, parando antes se o tempo passar de
+ * {@code sampling.budget-micros}; o restante fica para os próximos ticks.
+ * <p>
+ * Os valores resolvidos ficam em uma coluna concorrente por placeholder, lida pelo ciclo
+ * assíncrono. Além das varreduras, todos os placeholders em uso são capturados quando um jogador
+ * entra, muda de mundo ou sai do servidor, e cada valor é repassado a quem guarda os dados
+ * offline. Assim a varredura só precisa completar a tabela: jogadores com valor mais recente que
+ * {@code sampling.max-age-seconds} não são resolvidos de novo. Os valores de um jogador são
+ * descartados da tabela quando ele sai.
+ * <p>
+ * A saída de cada placeholder é convertida pelo {@link ValueParser} no locale de
+ * {@code sampling.number-locale}. Saídas não numéricas não entram no ranking e são contadas por
+ * placeholder ({@link #getUnparsedCounts()}). As chamadas ao PlaceholderAPI passam pelo
+ * {@link PlaceholderCache}, exceto nas capturas dos eventos de jogador, que sempre resolvem de novo.
+ */
+public class PlaceholderSampler implements Listener {
+
+    private final DynamicTopHolograms plugin;
+    // Placeholders em uso pelos hologramas, capturados nos eventos de jogador
+    private final Supplier<Set<String>> trackedPlaceholders;
+    // Recebe cada valor resolvido (placeholder, valor), na thread principal
+    private final BiConsumer<String, SampledValue> sink;
+    // Placeholder -> UUID -> último valor resolvido
+    private final Map<String, Map<UUID, SampledValue>> values = new ConcurrentHashMap<>();
+    // Placeholder -> quantidade de saídas que não puderam ser convertidas em número (uma por
+    // chamada ao PlaceholderAPI; a mesma saída devolvida pelo cache não conta de novo)
+    private final Map<String, LongAdder> unparsed = new ConcurrentHashMap<>();
+    private final PlaceholderCache cache = new PlaceholderCache();
+    private ValueParser parser = ValueParser.forLocale("");
+    // Varredura em andamento e a próxima, que acumula os pedidos até começar (protegidas por this)
+    private Sweep current;
+    private Sweep next;
+    private BukkitTask task;
+
+    public PlaceholderSampler(DynamicTopHolograms plugin, Supplier<Set<String>> trackedPlaceholders,
+            BiConsumer<String, SampledValue> sink) {
+        this.plugin = plugin;
+        this.trackedPlaceholders = trackedPlaceholders;
+        this.sink = sink;
+    }
+
+    public void start() {
+        stop();
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Para a amostragem; varreduras pendentes são concluídas com o que já foi resolvido
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        Sweep running;
+        Sweep queued;
+        synchronized (this) {
+            running = current;
+            queued = next;
+            current = null;
+            next = null;
+        }
+        if (running != null) {
+            finish(running);
+        }
+        if (queued != null) {
+            finish(queued);
+        }
+    }
+
+    /**
+     * Agenda a resolução de vários placeholders para todos os jogadores online, em uma única
+     * visita por jogador. Se a varredura em andamento já cobre todos eles, o resultado dela é
+     * compartilhado; caso contrário os placeholders entram na próxima varredura.
+     * <p>
+     * Não espere o resultado na thread principal: a varredura depende dela para avançar.
+     *
+     * @param placeholders placeholders do PAPI (ex: "%vault_eco_balance%")
+     * @return coluna de cada placeholder: valores dos jogadores online ao fim da varredura
+     *         (valores não numéricos são ignorados)
+     */
+    public synchronized CompletableFuture<Map<String, List<SampledValue>>> sample(Collection<String> placeholders) {
+        if (current != null && current.placeholders.containsAll(placeholders)) {
+            return current.result;
+        }
+        if (next == null) {
+            next = new Sweep();
+        }
+        next.placeholders.addAll(placeholders);
+        return next.result;
+    }
+
+    /**
+     * @param placeholder placeholder do PAPI
+     * @return últimos valores resolvidos dos jogadores online, em mapa somente leitura
+     */
+    public Map<UUID, SampledValue> getValues(String placeholder) {
+        Map<UUID, SampledValue> column = values.get(placeholder);
+        return column != null ? Collections.unmodifiableMap(column) : Collections.emptyMap();
+    }
+
+    /**
+     * Descarta os valores de placeholders que não são mais usados
+     *
+     * @param placeholders placeholders em uso
+     */
+    public void retain(Collection<String> placeholders) {
+        values.keySet().retainAll(placeholders);
+        unparsed.keySet().retainAll(placeholders);
+    }
+
+    public PlaceholderCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return placeholder -> quantidade de saídas não numéricas do PlaceholderAPI desde o último
+     *         reload (acertos do cache não contam)
+     */
+    public Map<String, Long> getUnparsedCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        unparsed.forEach((placeholder, count) -> counts.put(placeholder, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Zera os contadores de saídas não numéricas
+     */
+    public void clearUnparsedCounts() {
+        unparsed.clear();
+    }
+
+    /**
+     * Resolve na hora todos os placeholders em uso para um jogador (somente thread principal).
+     * As saídas guardadas no cache para ele são descartadas antes, para que o valor seja o do
+     * momento da captura.
+     *
+     * @param player jogador online
+     */
+    public void capture(Player player) {
+        cache.invalidate(player.getUniqueId());
+        for (String placeholder : trackedPlaceholders.get()) {
+            resolve(placeholder, player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        Player player = event.getPlayer();
+        // Plugins de economia e estatísticas costumam carregar os dados do jogador logo após a entrada
+        long delay = Math.max(0, plugin.getConfigManager().getConfig().getLong("sampling.join-delay-ticks", 20));
+        Bukkit.getScheduler().runTaskLater(plugin, () -> {
+            if (player.isOnline()) {
+                capture(player);
+            }
+        }, delay);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        capture(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        // Último valor antes de sair, enquanto o jogador ainda está carregado
+        capture(player);
+        UUID uuid = player.getUniqueId();
+        for (Map<UUID, SampledValue> column : values.values()) {
+            column.remove(uuid);
+        }
+        // As saídas resolvidas pela captura acima não servem mais
+        cache.invalidate(uuid);
+    }
+
+    private void tick() {
+        int maxPlayers = Math.max(1, plugin.getConfigManager().getConfig().getInt("sampling.players-per-tick", 25));
+        long budgetNanos = plugin.getConfigManager().getConfig().getLong("sampling.budget-micros", 1000) * 1000L;
+        long maxAgeMillis = plugin.getConfigManager().getConfig().getLong("sampling.max-age-seconds", 60) * 1000L;
+        updateParser();
+        long start = System.nanoTime();
+        int visited = 0;
+
+        // Pelo menos um jogador por tick, para garantir progresso mesmo com orçamento muito baixo
+        while (visited < maxPlayers) {
+            Sweep sweep;
+            synchronized (this) {
+                if (current == null) {
+                    if (next == null) {
+                        return;
+                    }
+                    // A partir daqui os placeholders da varredura não mudam
+                    current = next;
+                    next = null;
+                    // A lista de jogadores é tirada quando a varredura começa, na thread principal
+                    current.online = new ArrayList<Player>(Bukkit.getOnlinePlayers());
+                    current.players = current.online.iterator();
+                }
+                sweep = current;
+                if (!sweep.players.hasNext()) {
+                    current = null;
+                }
+            }
+
+            if (!sweep.players.hasNext()) {
+                finish(sweep);
+                continue;
+            }
+
+            Player player = sweep.players.next();
+            if (!player.isOnline()) {
+                continue;
+            }
+
+            // Uma visita por jogador resolve todos os placeholders da varredura; valores capturados
+            // recentemente (eventos ou outra varredura) não são resolvidos de novo
+            long now = System.currentTimeMillis();
+            boolean resolvedAny = false;
+            for (String placeholder : sweep.placeholders) {
+                SampledValue previous = getValues(placeholder).get(player.getUniqueId());
+                if (previous == null || now - previous.getSampledAt() >= maxAgeMillis) {
+                    resolve(placeholder, player);
+                    resolvedAny = true;
+                }
+            }
+            if (resolvedAny) {
+                visited++;
+                if (System.nanoTime() - start >= budgetNanos) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // O locale só é lido da config uma vez por tick; o parser é recriado quando ele muda
+    private void updateParser() {
+        String localeTag = plugin.getConfigManager().getConfig().getString("sampling.number-locale", "");
+        if (!parser.getLocaleTag().equals(localeTag != null ? localeTag.trim() : "")) {
+            parser = ValueParser.forLocale(localeTag);
+        }
+    }
+
+    private void resolve(String placeholder, Player player) {
+        boolean[] called = new boolean[1];
+        String valueStr = cache.get(player.getUniqueId(), placeholder, () -> {
+            called[0] = true;
+            return PlaceholderAPI.setPlaceholders(player, placeholder);
+        });
+        double value = parser.parse(valueStr);
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            // Ignorar valores não numéricos (ex: "N/A"), mas contá-los para o /dth stats
+            if (called[0]) {
+                unparsed.computeIfAbsent(placeholder, k -> new LongAdder()).increment();
+            }
+            return;
+        }
+
+        SampledValue sampled = new SampledValue(player.getUniqueId(), player.getName(), value,
+                System.currentTimeMillis());
+        values.computeIfAbsent(placeholder, k -> new ConcurrentHashMap<>()).put(sampled.getUuid(), sampled);
+        sink.accept(placeholder, sampled);
+    }
+
+    private void finish(Sweep sweep) {
+        Map<String, List<SampledValue>> columns = new HashMap<>();
+        for (String placeholder : sweep.placeholders) {
+            List<SampledValue> column = new ArrayList<>();
+            if (sweep.online != null) {
+                Map<UUID, SampledValue> values = getValues(placeholder);
+                for (Player player : sweep.online) {
+                    SampledValue sampled = values.get(player.getUniqueId());
+                    if (sampled != null) {
+                        column.add(sampled);
+                    }
+                }
+            }
+            columns.put(placeholder, column);
+        }
+        sweep.result.complete(columns);
+    }
+
+    private static final class Sweep {
+        final Set<String> placeholders = new LinkedHashSet<>();
+        final CompletableFuture<Map<String, List<SampledValue>>> result = new CompletableFuture<>();
+        List<Player> online;
+        Iterator<Player> players;
+    }
+}
@@ -0,0 +1,40 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.sampling;
+
+import java.util.UUID;
+
+/**
+ * Valor de um placeholder resolvido para um jogador online
+ */
+public final class SampledValue {
+
+    private final UUID uuid;
+    private final String name;
+    private final double value;
+    private final long sampledAt;
+
+    public SampledValue(UUID uuid, String name, double value, long sampledAt) {
+        this.uuid = uuid;
+        this.name = name;
+        this.value = value;
+        this.sampledAt = sampledAt;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return horário da resolução (milissegundos desde a época)
+     */
+    public long getSampledAt() {
+        return sampledAt;
+    }
+}
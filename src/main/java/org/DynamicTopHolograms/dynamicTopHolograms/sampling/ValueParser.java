@@ -0,0 +1,395 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.sampling;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Converte a saída de um placeholder em número sem lançar exceções.
+ * <p>
+ * Aceita, além de números simples:
+ * <ul>
+ * <li>códigos de cor ({@code &a}, {@code §a}, {@code &#RRGGBB}, {@code §x§R§R§G§G§B§B})</li>
+ * <li>separadores de milhar e decimal, ex: {@code 1,234.5} ou {@code 1.234,5}; quando só um
+ * separador aparece uma vez, vale o separador decimal do locale ({@code sampling.number-locale})</li>
+ * <li>sufixos {@code k}, {@code M}, {@code B} e {@code T} (sem diferenciar maiúsculas), ex: {@code 5.2k}</li>
+ * <li>durações com unidades {@code w}, {@code d}, {@code h}, {@code m}/{@code min} e {@code s},
+ * ex: {@code 12h 3m}, convertidas para segundos; um único {@code m} sozinho ({@code 5m}) é milhão</li>
+ * <li>símbolo de moeda no início ({@code $}, {@code €}, {@code £}, {@code ¥}) e {@code %} no final</li>
+ * </ul>
+ * Textos que não são números (ex: {@code N/A}) resultam em {@link Double#NaN}.
+ */
+public final class ValueParser {
+
+    private static final String CURRENCY_SYMBOLS = "$€£¥";
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+    // Dígitos significativos que cabem em um long sem estouro
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(32));
+
+    private final String localeTag;
+    private final char decimalSeparator;
+
+    private ValueParser(String localeTag, char decimalSeparator) {
+        this.localeTag = localeTag;
+        this.decimalSeparator = decimalSeparator;
+    }
+
+    /**
+     * @param localeTag locale no formato "pt_BR" ou "en-US"; vazio usa o locale padrão do servidor
+     * @return parser com o separador decimal do locale
+     */
+    public static ValueParser forLocale(String localeTag) {
+        String tag = localeTag != null ? localeTag.trim() : "";
+        Locale locale = tag.isEmpty() ? Locale.getDefault(Locale.Category.FORMAT)
+                : Locale.forLanguageTag(tag.replace('_', '-'));
+        return new ValueParser(tag, DecimalFormatSymbols.getInstance(locale).getDecimalSeparator());
+    }
+
+    /**
+     * @return locale como configurado (vazio para o padrão do servidor)
+     */
+    public String getLocaleTag() {
+        return localeTag;
+    }
+
+    /**
+     * Converte um texto em número
+     *
+     * @param text saída do placeholder
+     * @return valor, ou {@link Double#NaN} se o texto não for um número reconhecido
+     */
+    public double parse(String text) {
+        if (text == null || text.isEmpty()) {
+            return Double.NaN;
+        }
+        StringBuilder cleaned = clean(text);
+        if (cleaned.length() == 0) {
+            return Double.NaN;
+        }
+        double duration = parseDuration(cleaned);
+        return Double.isNaN(duration) ? parseNumber(cleaned) : duration;
+    }
+
+    // Remove códigos de cor e junta espaços em um só
+    private static StringBuilder clean(String text) {
+        StringBuilder builder = BUFFER.get();
+        builder.setLength(0);
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if ((c == '&' || c == '§') && i + 1 < length) {
+                char code = text.charAt(i + 1);
+                if (c == '&' && code == '#' && isHex(text, i + 2, i + 8)) {
+                    i += 7;
+                    continue;
+                }
+                if (isColorCode(code)) {
+                    i++;
+                    continue;
+                }
+            }
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                if (builder.length() > 0 && builder.charAt(builder.length() - 1) != ' ') {
+                    builder.append(' ');
+                }
+                continue;
+            }
+            builder.append(c);
+        }
+        if (builder.length() > 0 && builder.charAt(builder.length() - 1) == ' ') {
+            builder.setLength(builder.length() - 1);
+        }
+        return builder;
+    }
+
+    private double parseNumber(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        while (i < length && CURRENCY_SYMBOLS.indexOf(text.charAt(i)) >= 0) {
+            i++;
+        }
+        if (!negative && i < length && text.charAt(i) == '-') {
+            negative = true; // Ex: "$-5"
+            i++;
+        }
+
+        char decimal = decimalSeparatorOf(text, i);
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean inFraction = false;
+        for (; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (mantissa == 0 && c == '0') {
+                    if (inFraction) {
+                        exponent--; // Zeros à esquerda da parte decimal
+                    }
+                } else if (significantDigits < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    significantDigits++;
+                    if (inFraction) {
+                        exponent--;
+                    }
+                } else if (!inFraction) {
+                    exponent++; // Dígitos que não cabem no long
+                }
+            } else if (c == decimal && !inFraction) {
+                inFraction = true;
+            } else if (c == ' ' && !isDigitGroup(text, i + 1)) {
+                break; // Espaço antes do sufixo ou do %, ex: "5.2 k"
+            } else if (c == ',' || c == '.' || c == ' ' || c == '\'' || c == '_') {
+                // Separador de milhar: só é aceito entre dígitos e seguido de um grupo de 3
+                if (digits == 0 || inFraction || !isDigitGroup(text, i + 1)) {
+                    return Double.NaN;
+                }
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+
+        // Notação científica (ex: 1.5E7)
+        if (i < length && (text.charAt(i) == 'e' || text.charAt(i) == 'E') && i + 1 < length) {
+            int j = i + 1;
+            boolean negativeExponent = false;
+            if (text.charAt(j) == '-' || text.charAt(j) == '+') {
+                negativeExponent = text.charAt(j) == '-';
+                j++;
+            }
+            int scientific = 0;
+            int exponentDigits = 0;
+            while (j < length && text.charAt(j) >= '0' && text.charAt(j) <= '9' && exponentDigits < 4) {
+                scientific = scientific * 10 + (text.charAt(j) - '0');
+                exponentDigits++;
+                j++;
+            }
+            if (exponentDigits > 0) {
+                exponent += negativeExponent ? -scientific : scientific;
+                i = j;
+            }
+        }
+
+        double multiplier = 1;
+        if (i < length && text.charAt(i) == ' ') {
+            i++;
+        }
+        if (i < length) {
+            multiplier = suffixMultiplier(text.charAt(i));
+            if (multiplier > 0) {
+                i++;
+            } else {
+                multiplier = 1;
+            }
+        }
+        if (i < length && text.charAt(i) == ' ') {
+            i++;
+        }
+        if (i < length && text.charAt(i) == '%') {
+            i++;
+        }
+        if (i != length) {
+            return Double.NaN; // Sobrou texto que não é número (ex: "12 kills", "N/A")
+        }
+
+        double value = scale(mantissa, exponent) * multiplier;
+        return negative ? -value : value;
+    }
+
+    // Escolhe o separador decimal olhando quais separadores aparecem no texto
+    private char decimalSeparatorOf(CharSequence text, int from) {
+        int dots = 0;
+        int commas = 0;
+        int lastDot = -1;
+        int lastComma = -1;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                dots++;
+                lastDot = i;
+            } else if (c == ',') {
+                commas++;
+                lastComma = i;
+            }
+        }
+        if (dots > 0 && commas > 0) {
+            return lastDot > lastComma ? '.' : ','; // O último é o decimal: 1,234.5 ou 1.234,5
+        }
+        if (dots + commas == 0) {
+            return decimalSeparator;
+        }
+        char separator = dots > 0 ? '.' : ',';
+        if (dots + commas > 1) {
+            return separator == '.' ? ',' : '.'; // Repetido só pode ser milhar: 1.234.567
+        }
+        if (separator == decimalSeparator) {
+            return separator;
+        }
+        // Separador de milhar é sempre seguido de exatamente 3 dígitos; senão, é decimal (ex: 5.2)
+        int position = separator == '.' ? lastDot : lastComma;
+        int following = 0;
+        for (int i = position + 1; i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9'; i++) {
+            following++;
+        }
+        return following == 3 ? decimalSeparator : separator;
+    }
+
+    // Durações como "1d 2h", "12h 3m" ou "90s", em segundos
+    private static double parseDuration(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        double seconds = 0;
+        int parts = 0;
+        boolean explicitUnit = false;
+        while (i < length) {
+            if (text.charAt(i) == ' ') {
+                i++;
+                continue;
+            }
+            long whole = 0;
+            long fraction = 0;
+            int fractionDigits = 0;
+            int digits = 0;
+            boolean inFraction = false;
+            for (; i < length; i++) {
+                char c = text.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    if (digits++ >= 15) {
+                        return Double.NaN;
+                    }
+                    if (inFraction) {
+                        fraction = fraction * 10 + (c - '0');
+                        fractionDigits++;
+                    } else {
+                        whole = whole * 10 + (c - '0');
+                    }
+                } else if ((c == '.' || c == ',') && !inFraction && digits > 0) {
+                    inFraction = true;
+                } else {
+                    break;
+                }
+            }
+            if (digits == 0) {
+                return Double.NaN;
+            }
+            if (i < length && text.charAt(i) == ' ') {
+                i++;
+            }
+
+            long unitSeconds;
+            int unitLength;
+            char unit = i < length ? Character.toLowerCase(text.charAt(i)) : 0;
+            if (unit == 'm' && i + 2 < length && Character.toLowerCase(text.charAt(i + 1)) == 'i'
+                    && Character.toLowerCase(text.charAt(i + 2)) == 'n') {
+                unitSeconds = 60;
+                unitLength = 3;
+                explicitUnit = true;
+            } else {
+                switch (unit) {
+                    case 'w':
+                        unitSeconds = 604_800;
+                        break;
+                    case 'd':
+                        unitSeconds = 86_400;
+                        break;
+                    case 'h':
+                        unitSeconds = 3_600;
+                        break;
+                    case 'm':
+                        unitSeconds = 60;
+                        break;
+                    case 's':
+                        unitSeconds = 1;
+                        break;
+                    default:
+                        return Double.NaN;
+                }
+                unitLength = 1;
+                explicitUnit |= unit != 'm';
+            }
+            i += unitLength;
+            // A unidade precisa terminar aqui (ex: "5min" sim, "5mana" não)
+            if (i < length && Character.isLetter(text.charAt(i))) {
+                return Double.NaN;
+            }
+            seconds += (whole + fraction / POWERS_OF_TEN[fractionDigits]) * unitSeconds;
+            parts++;
+        }
+        // Um único "m" sem outras partes é tratado como milhão (formato compacto)
+        return parts > 0 && (parts > 1 || explicitUnit) ? seconds : Double.NaN;
+    }
+
+    private static double suffixMultiplier(char c) {
+        switch (Character.toLowerCase(c)) {
+            case 'k':
+                return 1e3;
+            case 'm':
+                return 1e6;
+            case 'b':
+                return 1e9;
+            case 't':
+                return 1e12;
+            default:
+                return -1;
+        }
+    }
+
+    // mantissa × 10^exponent com um único arredondamento quando possível
+    private static double scale(long mantissa, int exponent) {
+        if (mantissa == 0) {
+            return 0;
+        }
+        if (exponent == 0) {
+            return mantissa;
+        }
+        if (exponent > 0 && exponent < POWERS_OF_TEN.length) {
+            return mantissa * POWERS_OF_TEN[exponent];
+        }
+        if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            return mantissa / POWERS_OF_TEN[-exponent];
+        }
+        return mantissa * Math.pow(10, exponent);
+    }
+
+    private static boolean isDigitGroup(CharSequence text, int from) {
+        if (from + 3 > text.length()) {
+            return false;
+        }
+        for (int i = from; i < from + 3; i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return from + 3 == text.length() || text.charAt(from + 3) < '0' || text.charAt(from + 3) > '9';
+    }
+
+    private static boolean isColorCode(char c) {
+        char lower = Character.toLowerCase(c);
+        return (lower >= '0' && lower <= '9') || (lower >= 'a' && lower <= 'f') || (lower >= 'k' && lower <= 'o')
+                || lower == 'r' || lower == 'x';
+    }
+
+    private static boolean isHex(String text, int from, int to) {
+        if (to > text.length()) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.scheduler;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.bukkit.Bukkit;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Agrupa pedidos de atualização forçada de um mesmo holograma.
+ * <p>
+ * Pedidos feitos dentro da janela de espera ({@code update-cycle.force-debounce-ticks}) viram
+ * uma única atualização. Enquanto uma atualização está em andamento, novos pedidos são
+ * reduzidos a no máximo uma execução seguinte, iniciada quando a atual terminar.
+ */
+public class ForcedUpdateCoalescer {
+
+    private final DynamicTopHolograms plugin;
+    private final Function<String, CompletableFuture<Void>> updater;
+    private final Map<String, FlightState> states = new ConcurrentHashMap<>();
+
+    /**
+     * @param plugin  instância do plugin
+     * @param updater executa a atualização de um holograma e informa quando terminou
+     */
+    public ForcedUpdateCoalescer(DynamicTopHolograms plugin, Function<String, CompletableFuture<Void>> updater) {
+        this.plugin = plugin;
+        this.updater = updater;
+    }
+
+    /**
+     * Pede uma atualização do holograma
+     *
+     * @param hologramID ID do holograma
+     */
+    public void request(String hologramID) {
+        while (true) {
+            FlightState state = states.computeIfAbsent(hologramID, k -> new FlightState());
+            synchronized (state) {
+                // finish() pode ter descartado o estado entre o computeIfAbsent e o lock; usar o
+                // estado descartado abriria uma segunda execução em paralelo com um estado novo
+                if (states.get(hologramID) != state) {
+                    continue;
+                }
+                if (state.running) {
+                    state.followUp = true;
+                    return;
+                }
+                if (state.scheduled) {
+                    return; // Já há uma execução aguardando a janela de espera
+                }
+                state.scheduled = true;
+            }
+            scheduleLaunch(hologramID, state);
+            return;
+        }
+    }
+
+    private void scheduleLaunch(String hologramID, FlightState state) {
+        long debounceTicks = Math.max(0,
+                plugin.getConfigManager().getConfig().getLong("update-cycle.force-debounce-ticks", 10));
+        Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, () -> launch(hologramID, state), debounceTicks);
+    }
+
+    private void launch(String hologramID, FlightState state) {
+        synchronized (state) {
+            state.scheduled = false;
+            state.running = true;
+        }
+
+        CompletableFuture<Void> flight;
+        try {
+            flight = updater.apply(hologramID);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Erro ao atualizar holograma '" + hologramID + "': " + e.getMessage());
+            flight = CompletableFuture.completedFuture(null);
+        }
+        flight.whenComplete((result, error) -> finish(hologramID, state));
+    }
+
+    private void finish(String hologramID, FlightState state) {
+        synchronized (state) {
+            state.running = false;
+            if (!state.followUp) {
+                states.remove(hologramID, state);
+                return;
+            }
+            state.followUp = false;
+            state.scheduled = true;
+        }
+        scheduleLaunch(hologramID, state);
+    }
+
+    private static class FlightState {
+        boolean scheduled;
+        boolean running;
+        boolean followUp;
+    }
+}
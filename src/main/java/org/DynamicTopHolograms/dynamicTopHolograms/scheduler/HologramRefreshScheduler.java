@@ -0,0 +1,179 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.scheduler;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.DynamicTopHolograms.dynamicTopHolograms.RankingHologramManager;
+import org.DynamicTopHolograms.dynamicTopHolograms.activity.HologramActivityTracker;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.*;
+
+/**
+ * Agenda a atualização de cada holograma de ranking de forma independente.
+ * <p>
+ * Cada holograma tem seu próprio intervalo ({@code update-interval-minutes} no holograms.yml,
+ * ou o valor global do config.yml) e uma fase dentro desse intervalo. As fases são distribuídas
+ * de forma uniforme entre as fontes de dados com o mesmo intervalo, para que as consultas e as
+ * renderizações não aconteçam todas no mesmo instante. Hologramas da mesma fonte compartilham
+ * a fase e são atualizados juntos, com uma única consulta.
+ */
+public class HologramRefreshScheduler {
+
+    // Frequência com que o agendador verifica quais hologramas estão vencidos
+    private static final long TICK_PERIOD = 20L;
+    // Espaçamento das primeiras atualizações após o holograma ser descoberto
+    private static final long INITIAL_SPACING_MILLIS = 1000L;
+
+    private final DynamicTopHolograms plugin;
+    private final RankingHologramManager hologramManager;
+    private final Map<String, ScheduleEntry> entries = new HashMap<>();
+    private final long epochMillis = System.currentTimeMillis();
+    private BukkitTask task;
+
+    public HologramRefreshScheduler(DynamicTopHolograms plugin, RankingHologramManager hologramManager) {
+        this.plugin = plugin;
+        this.hologramManager = hologramManager;
+    }
+
+    /**
+     * Inicia a tarefa assíncrona do agendador
+     *
+     * @param initialDelayTicks atraso antes da primeira verificação
+     */
+    public void start(long initialDelayTicks) {
+        stop();
+        task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::tick, initialDelayTicks, TICK_PERIOD);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Descarta todas as fases calculadas; os hologramas são redistribuídos na próxima verificação
+     */
+    public synchronized void reset() {
+        entries.clear();
+    }
+
+    /**
+     * Obtém o momento da próxima atualização agendada de um holograma
+     *
+     * @param hologramID ID do holograma
+     * @return timestamp em milissegundos, ou -1 se o holograma ainda não foi agendado
+     */
+    public synchronized long getNextDueMillis(String hologramID) {
+        ScheduleEntry entry = entries.get(hologramID);
+        return entry != null ? entry.nextDueMillis : -1;
+    }
+
+    private void tick() {
+        List<String> due = collectDue(System.currentTimeMillis());
+
+        // Hologramas sem ninguém por perto ficam para quando alguém voltar
+        HologramActivityTracker activityTracker = plugin.getActivityTracker();
+        if (activityTracker != null) {
+            due.removeIf(id -> {
+                if (activityTracker.isDormant(id)) {
+                    activityTracker.markMissed(id);
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        if (!due.isEmpty()) {
+            hologramManager.updateHolograms(due);
+        }
+    }
+
+    private synchronized List<String> collectDue(long now) {
+        Set<String> configured = hologramManager.getConfiguredHologramIDs();
+        entries.keySet().retainAll(configured);
+
+        // Hologramas novos ou com intervalo alterado, agrupados por intervalo para distribuir as fases
+        Map<Long, List<String>> pending = new TreeMap<>();
+        for (String id : configured) {
+            long intervalMillis = hologramManager.getUpdateIntervalMinutes(id) * 60_000L;
+            ScheduleEntry entry = entries.get(id);
+            if (entry == null || entry.intervalMillis != Math.max(intervalMillis, 1000L)
+                    || !entry.sourceKey.equals(String.valueOf(hologramManager.getSourceKey(id)))) {
+                pending.computeIfAbsent(intervalMillis, k -> new ArrayList<>()).add(id);
+            }
+        }
+        int discovered = 0;
+        for (Map.Entry<Long, List<String>> group : pending.entrySet()) {
+            group.getValue().forEach(entries::remove);
+            distribute(group.getValue(), group.getKey(), now, discovered);
+            discovered += group.getValue().size();
+        }
+
+        List<String> due = new ArrayList<>();
+        for (Map.Entry<String, ScheduleEntry> e : entries.entrySet()) {
+            ScheduleEntry entry = e.getValue();
+            if (entry.nextDueMillis <= now) {
+                due.add(e.getKey());
+                entry.nextDueMillis = nextAligned(entry, now);
+            }
+        }
+        return due;
+    }
+
+    private void distribute(List<String> ids, long intervalMillis, long now, int alreadyDiscovered) {
+        Collections.sort(ids);
+        long effectiveInterval = Math.max(intervalMillis, 1000L);
+
+        // Hologramas com a mesma fonte de dados ficam na mesma fase, para que vençam juntos
+        // e compartilhem a consulta; fontes diferentes são intercaladas ao longo do intervalo
+        Map<String, ScheduleEntry> phaseBySource = new HashMap<>();
+        for (ScheduleEntry entry : entries.values()) {
+            if (entry.intervalMillis == effectiveInterval) {
+                phaseBySource.putIfAbsent(entry.sourceKey, entry);
+            }
+        }
+        Set<String> newSources = new TreeSet<>();
+        for (String id : ids) {
+            String sourceKey = String.valueOf(hologramManager.getSourceKey(id));
+            if (!phaseBySource.containsKey(sourceKey)) {
+                newSources.add(sourceKey);
+            }
+        }
+        long slots = phaseBySource.size() + newSources.size();
+        List<String> orderedNewSources = new ArrayList<>(newSources);
+
+        for (String id : ids) {
+            String sourceKey = String.valueOf(hologramManager.getSourceKey(id));
+            ScheduleEntry entry = new ScheduleEntry();
+            entry.intervalMillis = effectiveInterval;
+            entry.sourceKey = sourceKey;
+
+            ScheduleEntry sibling = phaseBySource.get(sourceKey);
+            if (sibling != null) {
+                entry.phaseMillis = sibling.phaseMillis;
+                entry.nextDueMillis = sibling.nextDueMillis;
+            } else {
+                int slot = orderedNewSources.indexOf(sourceKey);
+                entry.phaseMillis = effectiveInterval * (phaseBySource.size() + slot) / slots;
+                // Primeira atualização logo após a descoberta, espaçada para não concentrar tudo em um tick
+                entry.nextDueMillis = now + INITIAL_SPACING_MILLIS * (alreadyDiscovered + slot);
+            }
+            entries.put(id, entry);
+        }
+    }
+
+    private long nextAligned(ScheduleEntry entry, long now) {
+        long elapsed = now - epochMillis - entry.phaseMillis;
+        long cycles = Math.floorDiv(elapsed, entry.intervalMillis) + 1;
+        return epochMillis + entry.phaseMillis + cycles * entry.intervalMillis;
+    }
+
+    private static class ScheduleEntry {
+        String sourceKey;
+        long intervalMillis;
+        long phaseMillis;
+        long nextDueMillis;
+    }
+}
@@ -0,0 +1,164 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.scheduler;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Executa as consultas de um ciclo de atualização em paralelo.
+ * <p>
+ * Cada tarefa roda em uma virtual thread, limitada por um teto global
+ * ({@code update-cycle.max-concurrent-fetches}) e por um limite por conector
+ * ({@code update-cycle.connector-concurrency.<conector>}), para que um único banco de dados
+ * não receba consultas demais ao mesmo tempo. O ciclo tem um prazo total
+ * ({@code update-cycle.deadline-seconds}); tarefas que não terminarem a tempo são canceladas.
+ * Cada tarefa renderiza o próprio resultado assim que termina, sem esperar as demais.
+ */
+public class UpdateCycleExecutor {
+
+    private final DynamicTopHolograms plugin;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Semaphore> connectorLimits = new ConcurrentHashMap<>();
+    private volatile Semaphore globalLimit;
+
+    public UpdateCycleExecutor(DynamicTopHolograms plugin) {
+        this.plugin = plugin;
+        reloadLimits();
+    }
+
+    /**
+     * Relê os limites de concorrência do config.yml (aplicados às próximas tarefas)
+     */
+    public void reloadLimits() {
+        int maxConcurrent = plugin.getConfigManager().getConfig().getInt("update-cycle.max-concurrent-fetches", 8);
+        globalLimit = new Semaphore(Math.max(1, maxConcurrent));
+        connectorLimits.clear();
+    }
+
+    /**
+     * Inicia um ciclo de atualização sem bloquear quem chamou
+     *
+     * @param tasks tarefas do ciclo (uma por grupo de hologramas)
+     * @return concluído quando todas as tarefas terminarem ou forem canceladas pelo prazo
+     */
+    public CompletableFuture<Void> runCycle(Collection<Task> tasks) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        if (tasks.isEmpty() || executor.isShutdown()) {
+            done.complete(null);
+            return done;
+        }
+
+        long deadlineSeconds = plugin.getConfigManager().getConfig().getLong("update-cycle.deadline-seconds", 30);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(1, deadlineSeconds));
+
+        List<Future<?>> futures = new ArrayList<>();
+        List<Task> submitted = new ArrayList<>(tasks);
+        try {
+            for (Task task : submitted) {
+                futures.add(executor.submit(() -> execute(task, deadline)));
+            }
+            executor.submit(() -> {
+                try {
+                    enforceDeadline(submitted, futures, deadline);
+                } finally {
+                    done.complete(null);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Plugin sendo desabilitado
+            done.complete(null);
+        }
+        return done;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void execute(Task task, long deadline) {
+        Semaphore global = globalLimit;
+        Semaphore connector = connectorLimits.computeIfAbsent(task.limitKey, this::createConnectorLimit);
+        boolean globalAcquired = false;
+        boolean connectorAcquired = false;
+
+        try {
+            globalAcquired = global.tryAcquire(remaining(deadline), TimeUnit.NANOSECONDS);
+            connectorAcquired = globalAcquired
+                    && connector.tryAcquire(remaining(deadline), TimeUnit.NANOSECONDS);
+            if (!connectorAcquired) {
+                plugin.getLogger().warning("Atualização de '" + task.label
+                        + "' não iniciou dentro do prazo do ciclo (conector " + task.limitKey + " ocupado).");
+                return;
+            }
+
+            task.work.run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Erro ao atualizar '" + task.label + "': " + e.getMessage());
+        } finally {
+            if (connectorAcquired) {
+                connector.release();
+            }
+            if (globalAcquired) {
+                global.release();
+            }
+        }
+    }
+
+    private void enforceDeadline(List<Task> tasks, List<Future<?>> futures, long deadline) {
+        List<String> expired = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            Future<?> future = futures.get(i);
+            try {
+                future.get(remaining(deadline), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                expired.add(tasks.get(i).label);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | CancellationException e) {
+                // Erros já registrados pela própria tarefa
+            }
+        }
+
+        if (!expired.isEmpty()) {
+            plugin.getLogger().warning("Ciclo de atualização excedeu o prazo; canceladas: " + String.join(", ", expired));
+        }
+    }
+
+    private Semaphore createConnectorLimit(String limitKey) {
+        int limit = plugin.getConfigManager().getConfig().getInt("update-cycle.connector-concurrency." + limitKey,
+                plugin.getConfigManager().getConfig().getInt("update-cycle.connector-concurrency.default", 1));
+        return new Semaphore(Math.max(1, limit));
+    }
+
+    private long remaining(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    /**
+     * Uma unidade de trabalho do ciclo: consulta uma fonte e renderiza os hologramas dela
+     */
+    public static final class Task {
+        final String label;
+        final String limitKey;
+        final Runnable work;
+
+        /**
+         * @param label    nome usado nos logs (ex: chave da fonte de dados)
+         * @param limitKey conector cujo limite de concorrência se aplica (ex: "genericsql", "papi")
+         * @param work     consulta e renderização
+         */
+        public Task(String label, String limitKey, Runnable work) {
+            this.label = label;
+            this.limitKey = limitKey;
+            this.work = work;
+        }
+    }
+}
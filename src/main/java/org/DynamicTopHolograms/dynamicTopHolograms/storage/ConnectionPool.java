@@ -0,0 +1,109 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conjunto fixo de conexões JDBC reaproveitadas.
+ * <p>
+ * As conexões são abertas sob demanda, até {@code maxSize}. Quem pede uma conexão com todas em
+ * uso espera até {@code borrowTimeoutMillis}. Uma conexão parada há mais de
+ * {@value #VALIDATE_AFTER_MILLIS} ms é testada antes de ser entregue, porque servidores MySQL
+ * fecham conexões ociosas; conexões com defeito são descartadas e abertas de novo.
+ */
+final class ConnectionPool {
+
+    /**
+     * Abre uma nova conexão
+     */
+    interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private static final long VALIDATE_AFTER_MILLIS = 30_000L;
+
+    private final ConnectionFactory factory;
+    private final Semaphore permits;
+    private final long borrowTimeoutMillis;
+    // Conexões livres; a mais recente primeiro, para as antigas poderem expirar
+    private final ConcurrentLinkedDeque<Idle> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    ConnectionPool(ConnectionFactory factory, int maxSize, long borrowTimeoutMillis) {
+        this.factory = factory;
+        this.permits = new Semaphore(Math.max(1, maxSize), true);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Conjunto de conexões fechado");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Tempo esgotado esperando uma conexão livre");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido esperando uma conexão livre", e);
+        }
+
+        try {
+            Idle candidate;
+            while ((candidate = idle.pollFirst()) != null) {
+                if (System.currentTimeMillis() - candidate.since < VALIDATE_AFTER_MILLIS
+                        || candidate.connection.isValid(2)) {
+                    return candidate.connection;
+                }
+                closeQuietly(candidate.connection);
+            }
+            return factory.create();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    void release(Connection connection) {
+        try {
+            if (closed || connection.isClosed()) {
+                closeQuietly(connection);
+            } else {
+                idle.offerFirst(new Idle(connection, System.currentTimeMillis()));
+            }
+        } catch (SQLException e) {
+            closeQuietly(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    void close() {
+        closed = true;
+        Idle candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            closeQuietly(candidate.connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Conexão já quebrada
+        }
+    }
+
+    private static final class Idle {
+        final Connection connection;
+        final long since;
+
+        Idle(Connection connection, long since) {
+            this.connection = connection;
+            this.since = since;
+        }
+    }
+}
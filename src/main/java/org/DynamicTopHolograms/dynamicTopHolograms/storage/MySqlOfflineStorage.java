@@ -0,0 +1,149 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Armazenamento em um banco MySQL compartilhado ({@code storage.mysql}), para redes com vários
+ * servidores: todos gravam e consultam a mesma tabela, então a posição de um jogador é a mesma
+ * em qualquer servidor.
+ * <p>
+ * As conexões vêm de um {@link ConnectionPool} ({@code storage.mysql.pool-size}). A gravação usa
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE} com várias linhas por comando; se dois servidores
+ * gravarem o mesmo jogador, fica o valor mais recente ({@code last_seen} maior).
+ */
+public class MySqlOfflineStorage extends SqlOfflineStorage {
+
+    // Linhas por comando INSERT (5 parâmetros cada)
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private final String host;
+    private final int port;
+    private final String database;
+    private final String username;
+    private final String password;
+    private final int poolSize;
+    private ConnectionPool pool;
+
+    /**
+     * @param plugin               instância do plugin
+     * @param section              seção {@code storage.mysql} do config.yml
+     * @param flushIntervalSeconds intervalo entre as gravações
+     */
+    public MySqlOfflineStorage(DynamicTopHolograms plugin, ConfigurationSection section, long flushIntervalSeconds) {
+        super(plugin, section.getString("table-prefix", "dth_") + "offline_data", flushIntervalSeconds);
+        this.host = section.getString("host", "localhost");
+        this.port = section.getInt("port", 3306);
+        this.database = section.getString("database", "minecraft");
+        this.username = section.getString("username", "root");
+        this.password = section.getString("password", "");
+        this.poolSize = section.getInt("pool-size", 4);
+    }
+
+    @Override
+    public String getType() {
+        return "mysql";
+    }
+
+    @Override
+    protected boolean connect() {
+        try {
+            Class.forName("com.mysql.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            // Tentar o driver mais recente se o antigo não estiver disponível
+            try {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            } catch (ClassNotFoundException e2) {
+                plugin.getLogger().severe("Nenhum driver MySQL encontrado para os dados offline.");
+                return false;
+            }
+        }
+
+        plugin.getLogger().info("Conectando ao MySQL dos dados offline em: " + host + ":" + port + "/" + database);
+        String url = "jdbc:mysql://" + host + ":" + port + "/" + database + "?useSSL=false";
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url, username, password), poolSize, 10_000L);
+
+        Connection connection = null;
+        try {
+            connection = pool.borrow();
+            try (Statement statement = connection.createStatement()) {
+                // placeholder limitado a 191 caracteres para caber no índice com utf8mb4
+                statement.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                        + "placeholder VARCHAR(191) NOT NULL, "
+                        + "uuid CHAR(36) NOT NULL, "
+                        + "name VARCHAR(32), "
+                        + "value DOUBLE NOT NULL, "
+                        + "last_seen BIGINT NOT NULL, "
+                        + "PRIMARY KEY (placeholder, uuid), "
+                        + "INDEX " + table + "_value (placeholder, value)"
+                        + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao conectar ao MySQL dos dados offline: " + e.getMessage());
+            pool.close();
+            return false;
+        } finally {
+            if (connection != null) {
+                pool.release(connection);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected Connection borrow() throws SQLException {
+        return pool.borrow();
+    }
+
+    @Override
+    protected void release(Connection connection) {
+        pool.release(connection);
+    }
+
+    @Override
+    protected void upsert(Connection connection, String placeholder, List<OfflineRecord> records)
+            throws SQLException {
+        for (int from = 0; from < records.size(); from += ROWS_PER_STATEMENT) {
+            List<OfflineRecord> chunk = records.subList(from, Math.min(records.size(), from + ROWS_PER_STATEMENT));
+            try (PreparedStatement statement = connection.prepareStatement(upsertStatement(chunk.size()))) {
+                int parameter = 1;
+                for (OfflineRecord record : chunk) {
+                    statement.setString(parameter++, placeholder);
+                    statement.setString(parameter++, record.getUuid().toString());
+                    statement.setString(parameter++, record.getName());
+                    statement.setDouble(parameter++, record.getValue());
+                    statement.setLong(parameter++, record.getLastSeen());
+                }
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    @Override
+    protected void disconnect() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    // As atribuições do UPDATE são feitas em ordem: name e value comparam com o last_seen antigo
+    private String upsertStatement(int rows) {
+        StringBuilder sql = new StringBuilder(128 + rows * 18);
+        sql.append("INSERT INTO ").append(table).append(" (placeholder, uuid, name, value, last_seen) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+        }
+        sql.append(" ON DUPLICATE KEY UPDATE ")
+                .append("name = IF(VALUES(last_seen) >= last_seen, VALUES(name), name), ")
+                .append("value = IF(VALUES(last_seen) >= last_seen, VALUES(value), value), ")
+                .append("last_seen = GREATEST(last_seen, VALUES(last_seen))");
+        return sql.toString();
+    }
+}
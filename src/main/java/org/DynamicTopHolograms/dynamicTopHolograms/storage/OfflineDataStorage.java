@@ -0,0 +1,104 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Armazenamento dos dados de jogadores offline, escolhido por {@code storage.type}.
+ * <p>
+ * {@link #put} só registra o valor em memória; a gravação é feita em lote pelo próprio
+ * armazenamento, e as leituras já enxergam os valores ainda não gravados. Os métodos podem ser
+ * chamados de qualquer thread.
+ */
+public interface OfflineDataStorage {
+
+    /**
+     * Abre o armazenamento (cria tabelas, carrega arquivos)
+     *
+     * @return false se não foi possível abrir; o motivo já foi registrado no log
+     */
+    boolean open();
+
+    /**
+     * @return nome do tipo de armazenamento, para o log (ex: "file", "sqlite")
+     */
+    String getType();
+
+    /**
+     * Último valor registrado nesta sessão, usado para não regravar valores que não mudaram.
+     * Não consulta o disco.
+     *
+     * @param placeholder placeholder do ranking
+     * @param uuid        UUID do jogador
+     * @return último valor registrado, ou null se não houver
+     */
+    OfflineRecord get(String placeholder, UUID uuid);
+
+    /**
+     * Registra o valor de um jogador (gravado na próxima rodada de gravação)
+     *
+     * @param placeholder placeholder do ranking
+     * @param record      valor do jogador
+     */
+    void put(String placeholder, OfflineRecord record);
+
+    /**
+     * Grava um lote de valores importados de outro armazenamento, de forma síncrona
+     *
+     * @param placeholder placeholder do ranking
+     * @param records     valores a importar
+     * @throws IOException se a gravação falhar
+     */
+    void importBatch(String placeholder, List<OfflineRecord> records) throws IOException;
+
+    /**
+     * Obtém as primeiras posições de um ranking
+     *
+     * @param placeholder placeholder do ranking
+     * @param limit       número de posições
+     * @param ascending   true para menor valor primeiro
+     * @param minLastSeen valores mais antigos que isso (segundos desde a época) são ignorados
+     * @return posições em ordem
+     */
+    List<OfflineRecord> getTop(String placeholder, int limit, boolean ascending, long minLastSeen);
+
+    /**
+     * Obtém a posição de um jogador em um ranking
+     *
+     * @param placeholder placeholder do ranking
+     * @param uuid        UUID do jogador
+     * @param ascending   true para menor valor primeiro
+     * @param minLastSeen valores mais antigos que isso (segundos desde a época) são ignorados
+     * @return posição e valor do jogador, ou null se o jogador não tiver dados
+     */
+    PlayerRank getRank(String placeholder, UUID uuid, boolean ascending, long minLastSeen);
+
+    /**
+     * Remove os valores expirados
+     *
+     * @param minLastSeen valores mais antigos que isso (segundos desde a época) são removidos
+     * @return número de valores removidos
+     */
+    int removeExpired(long minLastSeen);
+
+    /**
+     * @return placeholders com dados armazenados
+     */
+    Set<String> getPlaceholders();
+
+    /**
+     * Grava as alterações pendentes agora, na thread de quem chamou
+     *
+     * @return false se alguma gravação falhou
+     */
+    boolean flush();
+
+    /**
+     * Grava as alterações pendentes e fecha o armazenamento
+     */
+    void close();
+}
@@ -0,0 +1,305 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Diário de alterações dos dados offline de um placeholder ({@code <placeholder>.dthj}).
+ * <p>
+ * Cada alteração vira um registro binário de {@value #RECORD_SIZE} bytes acrescentado ao fim do
+ * arquivo (big-endian):
+ * <pre>
+ * operação (byte; 1 = valor, 2 = remoção), tamanho do nome (byte), reservado (short),
+ * lastSeen (int, segundos, sem sinal), UUID msb (long), UUID lsb (long), valor (double),
+ * nome em UTF-8 ({@value #NAME_BYTES} bytes, completado com zeros), CRC32 dos 60 bytes anteriores (int)
+ * </pre>
+ * Os registros acrescentados ficam em memória até {@link #commit()}, que grava todos de uma vez
+ * e força a gravação em disco (commit em grupo). Quem acrescenta registros nunca espera pelo
+ * disco. Na leitura, um registro incompleto ou com CRC errado marca o fim do diário (queda no
+ * meio de uma gravação).
+ */
+final class OfflineJournal {
+
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_SIZE = 64;
+    private static final int NAME_BYTES = 28;
+    private static final int MAGIC = 0x4454484A; // "DTHJ"
+    private static final short VERSION = 1;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    /**
+     * Recebe os registros lidos por {@link #replay(Path, Visitor)}, na ordem em que foram gravados
+     */
+    interface Visitor {
+        void put(UUID uuid, String name, double value, long lastSeen);
+
+        void remove(UUID uuid);
+    }
+
+    private final Path file;
+    // Serializa o uso do arquivo (commit, rotação, fechamento); os acréscimos usam o monitor do objeto
+    private final Object writeLock = new Object();
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private ByteBuffer pending = ByteBuffer.allocate(RECORD_SIZE * 64);
+    private volatile long size;
+
+    private OfflineJournal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Abre o diário para acrescentar registros, descartando o que vier depois do trecho válido
+     *
+     * @param file        arquivo do diário (criado se não existir)
+     * @param validLength tamanho do trecho válido, devolvido por {@link #replay(Path, Visitor)}
+     * @return diário aberto
+     * @throws IOException se o arquivo não puder ser aberto
+     */
+    static OfflineJournal open(Path file, long validLength) throws IOException {
+        OfflineJournal journal = new OfflineJournal(file);
+        journal.openChannel(validLength);
+        return journal;
+    }
+
+    /**
+     * Lê os registros válidos de um diário
+     *
+     * @param file    arquivo do diário
+     * @param visitor recebe cada registro, em ordem
+     * @return tamanho do trecho válido (0 se o arquivo não existir ou não tiver cabeçalho completo)
+     * @throws IOException se o arquivo não for um diário ou não puder ser lido
+     */
+    static long replay(Path file, Visitor visitor) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            fill(channel, header);
+            if (header.hasRemaining()) {
+                return 0;
+            }
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Não é um diário de dados offline");
+            }
+            if (header.getShort(4) != VERSION || header.getShort(6) != RECORD_SIZE) {
+                throw new IOException("Versão de diário não suportada: " + header.getShort(4));
+            }
+
+            CRC32 crc = new CRC32();
+            ByteBuffer chunk = ByteBuffer.allocate(RECORD_SIZE * 1024);
+            long valid = HEADER_SIZE;
+            while (true) {
+                chunk.clear();
+                boolean end = fill(channel, chunk);
+                chunk.flip();
+                for (int start = 0; start + RECORD_SIZE <= chunk.limit(); start += RECORD_SIZE) {
+                    crc.reset();
+                    crc.update(chunk.array(), start, RECORD_SIZE - 4);
+                    if ((int) crc.getValue() != chunk.getInt(start + RECORD_SIZE - 4)
+                            || !visit(chunk, start, visitor)) {
+                        return valid;
+                    }
+                    valid += RECORD_SIZE;
+                }
+                if (end) {
+                    return valid;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return tamanho já gravado do arquivo, em bytes
+     */
+    long size() {
+        return size;
+    }
+
+    synchronized void appendPut(UUID uuid, String name, double value, long lastSeen) {
+        append(OP_PUT, uuid, name, value, lastSeen);
+    }
+
+    synchronized void appendRemove(UUID uuid) {
+        append(OP_REMOVE, uuid, null, 0, 0);
+    }
+
+    /**
+     * Grava os registros pendentes com uma única escrita e força a gravação em disco
+     *
+     * @throws IOException se a gravação falhar (os registros continuam pendentes)
+     */
+    void commit() throws IOException {
+        synchronized (writeLock) {
+            ByteBuffer batch;
+            synchronized (this) {
+                if (pending.position() == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = ByteBuffer.allocate(batch.capacity());
+            }
+
+            batch.flip();
+            try {
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+                size += batch.limit();
+            } catch (IOException e) {
+                // Desfaz a escrita parcial e devolve o lote para a frente da fila
+                try {
+                    channel.truncate(size);
+                    channel.position(size);
+                } catch (IOException ignored) {
+                    // O trecho inválido é descartado pelo replay
+                }
+                synchronized (this) {
+                    pending.flip();
+                    ByteBuffer merged = ByteBuffer.allocate(batch.limit() + pending.remaining() + RECORD_SIZE * 64);
+                    merged.put(batch.array(), 0, batch.limit());
+                    merged.put(pending);
+                    pending = merged;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Sela o arquivo atual com outro nome e recomeça o diário em um arquivo vazio. Os registros
+     * ainda pendentes vão para o arquivo novo.
+     * <p>
+     * {@code capture} é chamado logo depois da troca: tudo que foi gravado no arquivo selado já
+     * estava em memória antes disso, então o que ele devolve contém o arquivo selado inteiro.
+     *
+     * @param sealed  novo nome do arquivo atual
+     * @param capture captura o estado em memória
+     * @return o que {@code capture} devolveu
+     * @throws IOException se o arquivo não puder ser renomeado (o diário continua no arquivo atual)
+     */
+    <T> T rotate(Path sealed, Supplier<T> capture) throws IOException {
+        synchronized (writeLock) {
+            channel.close();
+            try {
+                try {
+                    Files.move(file, sealed, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(file, sealed);
+                }
+            } finally {
+                // Arquivo novo se a troca deu certo, ou o mesmo arquivo, do ponto onde parou
+                openChannel(Files.exists(file) ? size : 0);
+            }
+            return capture.get();
+        }
+    }
+
+    /**
+     * Grava os registros pendentes e fecha o arquivo
+     */
+    void close() throws IOException {
+        synchronized (writeLock) {
+            try {
+                commit();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    private void openChannel(long validLength) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (validLength < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).flip();
+            channel.truncate(0);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            validLength = HEADER_SIZE;
+        } else if (channel.size() > validLength) {
+            channel.truncate(validLength);
+        }
+        channel.position(validLength);
+        size = validLength;
+    }
+
+    private void append(byte op, UUID uuid, String name, double value, long lastSeen) {
+        if (pending.remaining() < RECORD_SIZE) {
+            ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        byte[] encodedName = encodeName(name);
+        int start = pending.position();
+        pending.put(op).put((byte) encodedName.length).putShort((short) 0).putInt((int) lastSeen)
+                .putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits())
+                .putDouble(value).put(encodedName);
+        for (int i = encodedName.length; i < NAME_BYTES; i++) {
+            pending.put((byte) 0);
+        }
+        crc.reset();
+        crc.update(pending.array(), start, RECORD_SIZE - 4);
+        pending.putInt((int) crc.getValue());
+    }
+
+    // Nomes de jogador cabem com folga; um nome maior é cortado sem partir um caractere
+    private static byte[] encodeName(String name) {
+        if (name == null) {
+            return new byte[0];
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= NAME_BYTES) {
+            return bytes;
+        }
+        int length = NAME_BYTES;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    private static boolean visit(ByteBuffer chunk, int start, Visitor visitor) {
+        byte op = chunk.get(start);
+        int nameLength = chunk.get(start + 1) & 0xFF;
+        UUID uuid = new UUID(chunk.getLong(start + 8), chunk.getLong(start + 16));
+        if (op == OP_REMOVE) {
+            visitor.remove(uuid);
+            return true;
+        }
+        if (op != OP_PUT || nameLength > NAME_BYTES) {
+            return false;
+        }
+        String name = nameLength > 0
+                ? new String(chunk.array(), start + 32, nameLength, StandardCharsets.UTF_8) : null;
+        visitor.put(uuid, name, chunk.getDouble(start + 24), Integer.toUnsignedLong(chunk.getInt(start + 4)));
+        return true;
+    }
+
+    // Lê até encher o buffer ou chegar ao fim do arquivo; devolve true no fim do arquivo
+    private static boolean fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import java.util.UUID;
+
+/**
+ * Último valor conhecido de um jogador em um placeholder
+ */
+public final class OfflineRecord {
+
+    private final UUID uuid;
+    private final String name;
+    private final double value;
+    private final long lastSeen;
+
+    /**
+     * @param uuid     UUID do jogador
+     * @param name     nome do jogador
+     * @param value    valor do placeholder
+     * @param lastSeen horário do valor (segundos desde a época)
+     */
+    public OfflineRecord(UUID uuid, String name, double value, long lastSeen) {
+        this.uuid = uuid;
+        this.name = name;
+        this.value = value;
+        this.lastSeen = lastSeen;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return horário do valor (segundos desde a época)
+     */
+    public long getLastSeen() {
+        return lastSeen;
+    }
+}
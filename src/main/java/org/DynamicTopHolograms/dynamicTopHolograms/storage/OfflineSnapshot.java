@@ -0,0 +1,285 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.data.LeaderboardIndex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Snapshot binário e colunar dos dados offline de um placeholder ({@code <placeholder>.dths}).
+ * <p>
+ * Formato (big-endian):
+ * <pre>
+ * cabeçalho (32 bytes): magic "DTHS", versão (short), flags (short; 1 = deflate), quantidade,
+ *                       tamanho dos nomes, tamanho dos dados, tamanho gravado, CRC32 dos dados (long)
+ * dados:                long[n] UUID msb, long[n] UUID lsb, double[n] valores,
+ *                       int[n] lastSeen (segundos, sem sinal), int[n + 1] início de cada nome,
+ *                       bloco de nomes em UTF-8
+ * </pre>
+ * As entradas são gravadas em ordem crescente de (valor, UUID), então a leitura monta o índice
+ * sem ordenar. A leitura mapeia o arquivo em memória e copia cada coluna de uma vez, sem
+ * interpretar registro por registro.
+ */
+public final class OfflineSnapshot {
+
+    private static final int MAGIC = 0x44544853; // "DTHS"
+    private static final short VERSION = 1;
+    private static final short FLAG_DEFLATE = 1;
+    private static final int HEADER_SIZE = 32;
+
+    private final int count;
+    private final UUID[] uuids;
+    private final String[] names;
+    private final double[] values;
+    private final long[] lastSeen;
+
+    private OfflineSnapshot(int count, UUID[] uuids, String[] names, double[] values, long[] lastSeen) {
+        this.count = count;
+        this.uuids = uuids;
+        this.names = names;
+        this.values = values;
+        this.lastSeen = lastSeen;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public UUID[] getUuids() {
+        return uuids;
+    }
+
+    public String[] getNames() {
+        return names;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return última vez que cada valor foi visto (segundos desde a época)
+     */
+    public long[] getLastSeen() {
+        return lastSeen;
+    }
+
+    /**
+     * Descarta as entradas mais antigas que {@code minLastSeen}, mantendo a ordem
+     *
+     * @return número de entradas restantes
+     */
+    public int retainSince(long minLastSeen) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (lastSeen[i] >= minLastSeen) {
+                uuids[kept] = uuids[i];
+                names[kept] = names[i];
+                values[kept] = values[i];
+                lastSeen[kept] = lastSeen[i];
+                kept++;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Grava um snapshot de forma atômica
+     *
+     * @param target   arquivo de destino
+     * @param entries  entradas em ordem crescente de (valor, UUID)
+     * @param compress true para comprimir os dados com deflate
+     * @throws IOException se a gravação falhar (o arquivo anterior fica como estava)
+     */
+    public static void write(Path target, List<LeaderboardIndex.Entry> entries, boolean compress) throws IOException {
+        int count = entries.size();
+        byte[][] encodedNames = new byte[count][];
+        long namesLength = 0;
+        for (int i = 0; i < count; i++) {
+            String name = entries.get(i).getName();
+            encodedNames[i] = name != null ? name.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            namesLength += encodedNames[i].length;
+        }
+        long payloadLength = 32L * count + 4 + namesLength;
+        if (HEADER_SIZE + payloadLength > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot grande demais: " + count + " entradas");
+        }
+
+        // Os dados são montados logo após o espaço do cabeçalho, para gravar sem cópia
+        ByteBuffer file = ByteBuffer.allocate(HEADER_SIZE + (int) payloadLength);
+        file.position(HEADER_SIZE);
+        for (LeaderboardIndex.Entry entry : entries) {
+            file.putLong(entry.getUuid().getMostSignificantBits());
+        }
+        for (LeaderboardIndex.Entry entry : entries) {
+            file.putLong(entry.getUuid().getLeastSignificantBits());
+        }
+        for (LeaderboardIndex.Entry entry : entries) {
+            file.putDouble(entry.getValue());
+        }
+        for (LeaderboardIndex.Entry entry : entries) {
+            file.putInt((int) entry.getLastSeen());
+        }
+        int offset = 0;
+        for (byte[] name : encodedNames) {
+            file.putInt(offset);
+            offset += name.length;
+        }
+        file.putInt(offset);
+        for (byte[] name : encodedNames) {
+            file.put(name);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(file.array(), HEADER_SIZE, (int) payloadLength);
+
+        ByteBuffer output = file;
+        int storedLength = (int) payloadLength;
+        if (compress) {
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(file.array(), HEADER_SIZE, (int) payloadLength);
+                deflater.finish();
+                byte[] compressed = new byte[HEADER_SIZE + Math.max(64, (int) payloadLength / 2)];
+                int length = HEADER_SIZE;
+                while (!deflater.finished()) {
+                    if (length == compressed.length) {
+                        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                    }
+                    length += deflater.deflate(compressed, length, compressed.length - length);
+                }
+                output = ByteBuffer.wrap(compressed, 0, length);
+                storedLength = length - HEADER_SIZE;
+            } finally {
+                deflater.end();
+            }
+        }
+
+        output.putInt(0, MAGIC);
+        output.putShort(4, VERSION);
+        output.putShort(6, compress ? FLAG_DEFLATE : 0);
+        output.putInt(8, count);
+        output.putInt(12, (int) namesLength);
+        output.putInt(16, (int) payloadLength);
+        output.putInt(20, storedLength);
+        output.putLong(24, crc.getValue());
+        output.position(0);
+        AtomicFiles.write(target, output);
+    }
+
+    /**
+     * Lê um snapshot mapeando o arquivo em memória
+     *
+     * @param file arquivo do snapshot
+     * @return colunas do snapshot
+     * @throws IOException se o arquivo não existir, estiver truncado ou corrompido
+     */
+    public static OfflineSnapshot read(Path file) throws IOException {
+        ByteBuffer payload;
+        int count;
+        int namesLength;
+        int payloadLength;
+        long expectedCrc;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Arquivo truncado");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Não é um snapshot de dados offline");
+            }
+            if (mapped.getShort(4) != VERSION) {
+                throw new IOException("Versão de snapshot não suportada: " + mapped.getShort(4));
+            }
+            boolean deflated = (mapped.getShort(6) & FLAG_DEFLATE) != 0;
+            count = mapped.getInt(8);
+            namesLength = mapped.getInt(12);
+            payloadLength = mapped.getInt(16);
+            int storedLength = mapped.getInt(20);
+            expectedCrc = mapped.getLong(24);
+            if (count < 0 || namesLength < 0 || payloadLength != 32L * count + 4 + namesLength
+                    || storedLength < 0 || HEADER_SIZE + (long) storedLength > size) {
+                throw new IOException("Cabeçalho inválido");
+            }
+
+            ByteBuffer stored = mapped.slice(HEADER_SIZE, storedLength);
+            payload = deflated ? inflate(stored, payloadLength) : stored;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if (crc.getValue() != expectedCrc) {
+            throw new IOException("Checksum não confere");
+        }
+
+        // Cada coluna é copiada de uma vez
+        long[] msb = new long[count];
+        long[] lsb = new long[count];
+        double[] values = new double[count];
+        int[] lastSeenColumn = new int[count];
+        int[] nameOffsets = new int[count + 1];
+        byte[] nameBytes = new byte[namesLength];
+        int position = 0;
+        payload.slice(position, 8 * count).asLongBuffer().get(msb);
+        position += 8 * count;
+        payload.slice(position, 8 * count).asLongBuffer().get(lsb);
+        position += 8 * count;
+        payload.slice(position, 8 * count).asDoubleBuffer().get(values);
+        position += 8 * count;
+        payload.slice(position, 4 * count).asIntBuffer().get(lastSeenColumn);
+        position += 4 * count;
+        payload.slice(position, 4 * (count + 1)).asIntBuffer().get(nameOffsets);
+        position += 4 * (count + 1);
+        payload.get(position, nameBytes);
+
+        UUID[] uuids = new UUID[count];
+        String[] names = new String[count];
+        long[] lastSeen = new long[count];
+        for (int i = 0; i < count; i++) {
+            uuids[i] = new UUID(msb[i], lsb[i]);
+            int start = nameOffsets[i];
+            int end = nameOffsets[i + 1];
+            if (start < 0 || end < start || end > namesLength) {
+                throw new IOException("Bloco de nomes inválido");
+            }
+            names[i] = end > start ? new String(nameBytes, start, end - start, StandardCharsets.UTF_8) : null;
+            lastSeen[i] = Integer.toUnsignedLong(lastSeenColumn[i]);
+        }
+        return new OfflineSnapshot(count, uuids, names, values, lastSeen);
+    }
+
+    private static ByteBuffer inflate(ByteBuffer stored, int payloadLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            ByteBuffer payload = ByteBuffer.allocate(payloadLength);
+            while (payload.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(payload) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+            }
+            if (payload.hasRemaining()) {
+                throw new IOException("Dados comprimidos truncados");
+            }
+            payload.flip();
+            return payload;
+        } catch (DataFormatException e) {
+            throw new IOException("Dados comprimidos inválidos: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,514 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.LeaderboardIndex;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Armazenamento em arquivos: um snapshot binário ({@code playerdata/<placeholder>.dths}) mais um
+ * diário de alterações ({@code <placeholder>.dthj}) por placeholder.
+ * <p>
+ * Todos os jogadores não expirados ficam em memória, no índice ordenado de cada placeholder. Cada
+ * alteração é acrescentada ao diário como um registro de tamanho fixo; uma única thread grava os
+ * registros de todos os diários a cada {@code storage.file.journal-commit-millis} (commit em
+ * grupo), então uma queda perde no máximo esse intervalo. Quando um diário passa de
+ * {@code storage.file.journal-compact-kb}, outra thread o sela ({@code <placeholder>.dthj.<n>}),
+ * regrava o snapshot a partir do índice e apaga os diários selados. Na inicialização o índice é
+ * montado do snapshot e os diários são reaplicados por cima, em ordem; um diário que não pode ser
+ * lido até o fim é copiado para {@code <diário>.corrupt} antes de ser truncado ou apagado, e um
+ * snapshot que não pode ser lido é renomeado para {@code <placeholder>.dths.corrupt}. Veja
+ * {@link OfflineSnapshot} e {@link OfflineJournal} para os formatos.
+ */
+public class SnapshotOfflineStorage implements OfflineDataStorage {
+
+    static final String EXTENSION = ".dths";
+    static final String JOURNAL_EXTENSION = ".dthj";
+
+    private final DynamicTopHolograms plugin;
+    private final File dataFolder;
+    private final long expirySeconds;
+    private final long commitMillis;
+    private final long compactBytes;
+    private final boolean compress;
+    // Ranking ordenado por placeholder; é a única cópia dos dados em memória
+    private final Map<String, LeaderboardIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<String, OfflineJournal> journals = new ConcurrentHashMap<>();
+    // Placeholders com compactação agendada ou em andamento
+    private final Set<String> compacting = ConcurrentHashMap.newKeySet();
+    // Placeholders cujo último commit falhou, para registrar no log só a primeira falha
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+    // Diários que não foram lidos até o fim e dos quais não foi possível guardar uma cópia: não
+    // são abertos, truncados nem apagados até a próxima inicialização
+    private final Set<Path> unreadable = ConcurrentHashMap.newKeySet();
+    // Placeholders cujo snapshot não pôde ser lido nem separado: o snapshot não é regravado até a
+    // próxima inicialização
+    private final Set<String> lockedSnapshots = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService committer;
+    private final ExecutorService compactor;
+
+    /**
+     * @param plugin        instância do plugin
+     * @param dataFolder    pasta dos arquivos
+     * @param expirySeconds valores mais antigos que isso não são carregados
+     * @param commitMillis  intervalo entre as gravações dos diários
+     * @param compactBytes  tamanho do diário a partir do qual ele é incorporado ao snapshot
+     * @param compress      true para comprimir os snapshots com deflate
+     */
+    public SnapshotOfflineStorage(DynamicTopHolograms plugin, File dataFolder, long expirySeconds,
+            long commitMillis, long compactBytes, boolean compress) {
+        this.plugin = plugin;
+        this.dataFolder = dataFolder;
+        this.expirySeconds = expirySeconds;
+        this.commitMillis = Math.max(10, commitMillis);
+        this.compactBytes = Math.max(OfflineJournal.RECORD_SIZE * 1024L, compactBytes);
+        this.compress = compress;
+        this.committer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DynamicTopHolograms-OfflineJournal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DynamicTopHolograms-OfflineCompactor");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    @Override
+    public boolean open() {
+        if (!dataFolder.exists()) {
+            dataFolder.mkdirs();
+        }
+        loadAllData();
+        committer.scheduleWithFixedDelay(this::flush, commitMillis, commitMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    @Override
+    public String getType() {
+        return "file";
+    }
+
+    @Override
+    public OfflineRecord get(String placeholder, UUID uuid) {
+        LeaderboardIndex index = indexes.get(placeholder);
+        LeaderboardIndex.Entry entry = index != null ? index.get(uuid) : null;
+        return entry != null ? toRecord(entry) : null;
+    }
+
+    @Override
+    public void put(String placeholder, OfflineRecord record) {
+        // O índice é atualizado antes do diário: a compactação captura o índice depois de selar o
+        // diário, então nenhum registro selado fica de fora do snapshot
+        getIndex(placeholder).update(record.getUuid(), record.getName(), record.getValue(), record.getLastSeen());
+        OfflineJournal journal = getJournal(placeholder);
+        if (journal != null) {
+            journal.appendPut(record.getUuid(), record.getName(), record.getValue(), record.getLastSeen());
+        } else {
+            requestCompaction(placeholder);
+        }
+    }
+
+    @Override
+    public void importBatch(String placeholder, List<OfflineRecord> records) {
+        for (OfflineRecord record : records) {
+            put(placeholder, record);
+        }
+    }
+
+    @Override
+    public List<OfflineRecord> getTop(String placeholder, int limit, boolean ascending, long minLastSeen) {
+        LeaderboardIndex index = indexes.get(placeholder);
+        List<OfflineRecord> records = new ArrayList<>();
+        if (index == null) {
+            return records;
+        }
+
+        // O índice já está ordenado: percorre só as primeiras posições, pulando dados expirados
+        for (LeaderboardIndex.Entry entry : index.top(limit, ascending, e -> e.getLastSeen() >= minLastSeen)) {
+            records.add(toRecord(entry));
+        }
+        return records;
+    }
+
+    @Override
+    public PlayerRank getRank(String placeholder, UUID uuid, boolean ascending, long minLastSeen) {
+        LeaderboardIndex index = indexes.get(placeholder);
+        if (index == null) {
+            return null;
+        }
+        LeaderboardIndex.Entry entry = index.get(uuid);
+        int rank = index.rankOf(uuid, ascending, minLastSeen);
+        return entry != null && rank > 0 ? new PlayerRank(rank, entry.getValue()) : null;
+    }
+
+    @Override
+    public int removeExpired(long minLastSeen) {
+        int removed = 0;
+        for (Map.Entry<String, LeaderboardIndex> placeholderEntry : indexes.entrySet()) {
+            String placeholder = placeholderEntry.getKey();
+            LeaderboardIndex index = placeholderEntry.getValue();
+
+            List<UUID> toRemove = new ArrayList<>();
+            for (LeaderboardIndex.Entry entry : index.range(0, index.size(), true)) {
+                if (entry.getLastSeen() < minLastSeen) {
+                    toRemove.add(entry.getUuid());
+                }
+            }
+            if (toRemove.isEmpty()) {
+                continue;
+            }
+
+            OfflineJournal journal = getJournal(placeholder);
+            for (UUID uuid : toRemove) {
+                index.remove(uuid);
+                if (journal != null) {
+                    journal.appendRemove(uuid);
+                }
+            }
+            if (journal == null) {
+                requestCompaction(placeholder);
+            }
+            plugin.getLogger().info("Removidos " + toRemove.size() + " jogadores expirados para placeholder " + placeholder);
+            removed += toRemove.size();
+        }
+        return removed;
+    }
+
+    @Override
+    public Set<String> getPlaceholders() {
+        return new HashSet<>(indexes.keySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Grava os registros pendentes de todos os diários; diários grandes demais são incorporados
+     * ao snapshot em segundo plano.
+     */
+    @Override
+    public boolean flush() {
+        boolean success = true;
+        for (Map.Entry<String, OfflineJournal> entry : journals.entrySet()) {
+            String placeholder = entry.getKey();
+            OfflineJournal journal = entry.getValue();
+            try {
+                journal.commit();
+                if (failing.remove(placeholder)) {
+                    plugin.getLogger().info("Diário de dados offline de " + placeholder + " voltou a ser gravado");
+                }
+            } catch (IOException | RuntimeException e) {
+                if (failing.add(placeholder)) {
+                    plugin.getLogger().severe("Erro ao gravar o diário de dados offline de " + placeholder + ": "
+                            + e.getMessage());
+                }
+                success = false;
+            }
+            if (journal.size() >= compactBytes) {
+                requestCompaction(placeholder);
+            }
+        }
+        return success;
+    }
+
+    @Override
+    public void close() {
+        committer.shutdown();
+        compactor.shutdown();
+        try {
+            if (!committer.awaitTermination(10, TimeUnit.SECONDS)) {
+                committer.shutdownNow();
+            }
+            // Uma compactação em andamento termina; se não terminar, os diários selados ficam no
+            // disco e são reaplicados na próxima inicialização
+            if (!compactor.awaitTermination(30, TimeUnit.SECONDS)) {
+                compactor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Map.Entry<String, OfflineJournal> entry : journals.entrySet()) {
+            try {
+                entry.getValue().close();
+            } catch (IOException e) {
+                plugin.getLogger().severe("Erro ao gravar o diário de dados offline de " + entry.getKey() + ": "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    private LeaderboardIndex getIndex(String placeholder) {
+        return indexes.computeIfAbsent(placeholder, k -> new LeaderboardIndex());
+    }
+
+    // Diário do placeholder, criado na primeira alteração; null se não puder ser aberto (nesse
+    // caso as alterações vão direto para o snapshot)
+    private OfflineJournal getJournal(String placeholder) {
+        OfflineJournal journal = journals.get(placeholder);
+        if (journal != null || unreadable.contains(journalPath(placeholder))) {
+            return journal;
+        }
+        synchronized (journals) {
+            journal = journals.get(placeholder);
+            if (journal == null) {
+                try {
+                    journal = OfflineJournal.open(journalPath(placeholder), 0);
+                    journals.put(placeholder, journal);
+                } catch (IOException e) {
+                    if (failing.add(placeholder)) {
+                        plugin.getLogger().severe("Erro ao criar o diário de dados offline de " + placeholder + ": "
+                                + e.getMessage());
+                    }
+                }
+            }
+            return journal;
+        }
+    }
+
+    private void requestCompaction(String placeholder) {
+        if (!compacting.add(placeholder)) {
+            return;
+        }
+        try {
+            compactor.execute(() -> {
+                try {
+                    compact(placeholder);
+                } finally {
+                    compacting.remove(placeholder);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            compacting.remove(placeholder); // Desligando: os diários serão reaplicados na próxima inicialização
+        }
+    }
+
+    // Sela o diário, regrava o snapshot com o índice capturado logo depois e apaga os diários
+    // selados. Uma queda em qualquer ponto deixa snapshot + diários reaplicáveis: reaplicar um
+    // registro já contido no snapshot só repete o mesmo valor.
+    private void compact(String placeholder) {
+        if (lockedSnapshots.contains(placeholder)) {
+            return;
+        }
+        LeaderboardIndex index = getIndex(placeholder);
+        try {
+            TreeMap<Long, Path> sealed = sealedJournals(placeholder);
+            OfflineJournal journal = journals.get(placeholder);
+            List<LeaderboardIndex.Entry> entries;
+            if (journal != null) {
+                long sequence = sealed.isEmpty() ? 1 : sealed.lastKey() + 1;
+                Path segment = journalPath(placeholder).resolveSibling(placeholder + JOURNAL_EXTENSION + "." + sequence);
+                entries = journal.rotate(segment, () -> index.range(0, index.size(), true));
+                sealed.put(sequence, segment);
+            } else {
+                entries = index.range(0, index.size(), true);
+            }
+
+            OfflineSnapshot.write(new File(dataFolder, placeholder + EXTENSION).toPath(), entries, compress);
+            for (Path segment : sealed.values()) {
+                if (!unreadable.contains(segment)) {
+                    Files.deleteIfExists(segment);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().severe("Erro ao compactar os dados offline de " + placeholder + ": " + e.getMessage());
+        }
+    }
+
+    private void loadAllData() {
+        plugin.getLogger().info("Carregando dados offline de jogadores...");
+        String[] files = dataFolder.list();
+        if (files == null) return;
+
+        Set<String> placeholders = new HashSet<>();
+        for (String name : files) {
+            int journalStart = name.lastIndexOf(JOURNAL_EXTENSION);
+            if (name.endsWith(EXTENSION)) {
+                placeholders.add(name.substring(0, name.length() - EXTENSION.length()));
+            } else if (journalStart > 0 && isJournalSuffix(name.substring(journalStart + JOURNAL_EXTENSION.length()))) {
+                placeholders.add(name.substring(0, journalStart));
+            }
+        }
+
+        long minLastSeen = System.currentTimeMillis() / 1000L - expirySeconds;
+        for (String placeholder : placeholders) {
+            loadPlaceholder(placeholder, minLastSeen);
+        }
+    }
+
+    private void loadPlaceholder(String placeholder, long minLastSeen) {
+        File snapshotFile = new File(dataFolder, placeholder + EXTENSION);
+        LeaderboardIndex index = getIndex(placeholder);
+        boolean snapshotLoaded = true;
+        if (snapshotFile.exists()) {
+            try {
+                OfflineSnapshot snapshot = OfflineSnapshot.read(snapshotFile.toPath());
+                int count = snapshot.retainSince(minLastSeen);
+                index.loadSorted(snapshot.getUuids(), snapshot.getNames(), snapshot.getValues(),
+                        snapshot.getLastSeen(), count);
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().severe("Erro ao carregar snapshot " + snapshotFile.getName() + ": " + e.getMessage());
+                snapshotLoaded = false;
+                setSnapshotAside(placeholder, snapshotFile.toPath());
+            }
+        }
+
+        // Diários selados (compactação interrompida) e depois o diário atual, em ordem
+        long[] replayed = new long[1];
+        OfflineJournal.Visitor replay = new OfflineJournal.Visitor() {
+            @Override
+            public void put(UUID uuid, String name, double value, long lastSeen) {
+                replayed[0]++;
+                if (lastSeen >= minLastSeen) {
+                    index.update(uuid, name, value, lastSeen);
+                } else {
+                    index.remove(uuid);
+                }
+            }
+
+            @Override
+            public void remove(UUID uuid) {
+                replayed[0]++;
+                index.remove(uuid);
+            }
+        };
+        TreeMap<Long, Path> sealed = sealedJournals(placeholder);
+        for (Path segment : sealed.values()) {
+            replayJournal(segment, replay);
+        }
+        Path journalFile = journalPath(placeholder);
+        long validLength = replayJournal(journalFile, replay);
+        if (validLength >= 0) {
+            try {
+                journals.put(placeholder, OfflineJournal.open(journalFile, validLength));
+            } catch (IOException e) {
+                plugin.getLogger().severe("Erro ao abrir o diário " + journalFile.getFileName() + ": " + e.getMessage());
+            }
+        }
+
+        if (index.size() > 0) {
+            plugin.getLogger().info("Carregados " + index.size() + " jogadores para placeholder " + placeholder);
+        }
+        // Reaplicar o diário custa a cada inicialização: incorpora ao snapshot o que sobrou. Sem o
+        // snapshot, a compactação gravaria só o que veio dos diários; ela fica para as alterações
+        // desta sessão, e os diários continuam no disco até lá
+        if (snapshotLoaded && (!sealed.isEmpty() || replayed[0] > 0)) {
+            requestCompaction(placeholder);
+        }
+    }
+
+    // Reaplica um diário e devolve o tamanho do trecho válido (0 se ele não pôde ser lido). Antes
+    // que o resto seja truncado ou o diário seja apagado pela compactação, uma cópia do arquivo
+    // inteiro é guardada em <diário>.corrupt; se a cópia falhar, devolve -1 e o arquivo fica
+    // intocado, fora do uso.
+    private long replayJournal(Path file, OfflineJournal.Visitor visitor) {
+        long validLength;
+        try {
+            validLength = OfflineJournal.replay(file, visitor);
+            long size = Files.exists(file) ? Files.size(file) : 0;
+            // Um cabeçalho incompleto não tem registros: não há o que guardar
+            if (size <= validLength || size < OfflineJournal.HEADER_SIZE) {
+                return validLength;
+            }
+            plugin.getLogger().warning("O diário " + file.getFileName() + " tem " + (size - validLength)
+                    + " bytes inválidos depois do trecho lido");
+        } catch (IOException e) {
+            plugin.getLogger().severe("Erro ao ler o diário " + file.getFileName() + ": " + e.getMessage());
+            validLength = 0;
+        }
+
+        Path copy = corruptPath(file);
+        try {
+            Files.copy(file, copy);
+            plugin.getLogger().warning("Cópia do diário " + file.getFileName() + " guardada em " + copy.getFileName());
+            return validLength;
+        } catch (IOException e) {
+            plugin.getLogger().severe("Não foi possível copiar o diário " + file.getFileName() + " (" + e.getMessage()
+                    + "); ele não será alterado até a próxima inicialização");
+            unreadable.add(file);
+            return -1;
+        }
+    }
+
+    // Renomeia um snapshot ilegível para <placeholder>.dths.corrupt, para que a próxima
+    // compactação não grave por cima dele só o que veio dos diários. Se não der, o snapshot deixa
+    // de ser regravado até a próxima inicialização.
+    private void setSnapshotAside(String placeholder, Path file) {
+        Path target = corruptPath(file);
+        try {
+            Files.move(file, target);
+            plugin.getLogger().warning("Snapshot " + file.getFileName() + " movido para " + target.getFileName());
+        } catch (IOException e) {
+            plugin.getLogger().severe("Não foi possível mover o snapshot " + file.getFileName() + " (" + e.getMessage()
+                    + "); os dados de " + placeholder + " não serão gravados nele até a próxima inicialização");
+            lockedSnapshots.add(placeholder);
+        }
+    }
+
+    // <arquivo>.corrupt, ou <arquivo>.corrupt.<milissegundos> se já houver um
+    private static Path corruptPath(Path file) {
+        Path target = file.resolveSibling(file.getFileName() + ".corrupt");
+        if (Files.exists(target)) {
+            target = file.resolveSibling(file.getFileName() + ".corrupt." + System.currentTimeMillis());
+        }
+        return target;
+    }
+
+    private Path journalPath(String placeholder) {
+        return new File(dataFolder, placeholder + JOURNAL_EXTENSION).toPath();
+    }
+
+    // Diários selados do placeholder, por número de sequência
+    private TreeMap<Long, Path> sealedJournals(String placeholder) {
+        TreeMap<Long, Path> sealed = new TreeMap<>();
+        String prefix = placeholder + JOURNAL_EXTENSION + ".";
+        String[] files = dataFolder.list((dir, name) -> name.startsWith(prefix));
+        if (files != null) {
+            for (String name : files) {
+                String suffix = name.substring(prefix.length());
+                if (isJournalSuffix("." + suffix)) {
+                    sealed.put(Long.parseLong(suffix), new File(dataFolder, name).toPath());
+                }
+            }
+        }
+        return sealed;
+    }
+
+    // "" (diário atual) ou ".<número>" (diário selado)
+    private static boolean isJournalSuffix(String suffix) {
+        if (suffix.isEmpty()) {
+            return true;
+        }
+        if (suffix.length() < 2 || suffix.length() > 19 || suffix.charAt(0) != '.') {
+            return false;
+        }
+        for (int i = 1; i < suffix.length(); i++) {
+            if (suffix.charAt(i) < '0' || suffix.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static OfflineRecord toRecord(LeaderboardIndex.Entry entry) {
+        return new OfflineRecord(entry.getUuid(), entry.getName(), entry.getValue(), entry.getLastSeen());
+    }
+}
@@ -0,0 +1,345 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.DynamicTopHolograms.dynamicTopHolograms.data.PlayerRank;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base dos armazenamentos em banco SQL.
+ * <p>
+ * Os valores ficam em uma tabela {@code (placeholder, uuid, name, value, last_seen)} com chave
+ * (placeholder, uuid) e índice em (placeholder, value): as primeiras posições são uma consulta
+ * {@code ORDER BY value LIMIT n} no índice e a posição de um jogador é um {@code COUNT}, sem
+ * carregar os jogadores em memória. Só os valores registrados nesta sessão ficam em memória; os
+ * ainda não gravados entram no resultado das primeiras posições. A gravação é feita em lote pela
+ * {@link WriteBehindQueue}, em uma transação por placeholder.
+ * <p>
+ * As subclasses fornecem a conexão, o esquema e o comando de gravação de cada banco.
+ */
+public abstract class SqlOfflineStorage implements OfflineDataStorage {
+
+    protected final DynamicTopHolograms plugin;
+    protected final String table;
+    private final long flushIntervalSeconds;
+    // Últimos valores registrados nesta sessão, para não regravar valores que não mudaram
+    private final Map<String, Map<UUID, OfflineRecord>> latest = new ConcurrentHashMap<>();
+    // Valores ainda não gravados no banco
+    private final Map<String, Map<UUID, OfflineRecord>> pending = new ConcurrentHashMap<>();
+    private final WriteBehindQueue writeQueue;
+
+    /**
+     * @param plugin               instância do plugin
+     * @param table                nome da tabela
+     * @param flushIntervalSeconds intervalo entre as gravações
+     */
+    protected SqlOfflineStorage(DynamicTopHolograms plugin, String table, long flushIntervalSeconds) {
+        this.plugin = plugin;
+        this.table = table;
+        this.flushIntervalSeconds = flushIntervalSeconds;
+        this.writeQueue = new WriteBehindQueue(plugin, "DynamicTopHolograms-OfflineWriter", this::writePending);
+    }
+
+    /**
+     * Conecta ao banco e cria a tabela e o índice, se não existirem
+     *
+     * @return false se não foi possível conectar; o motivo já foi registrado no log
+     */
+    protected abstract boolean connect();
+
+    /**
+     * Obtém uma conexão para uso exclusivo até {@link #release(Connection)}
+     */
+    protected abstract Connection borrow() throws SQLException;
+
+    protected abstract void release(Connection connection);
+
+    /**
+     * Grava os valores (inserindo ou atualizando) dentro da transação já aberta
+     */
+    protected abstract void upsert(Connection connection, String placeholder, List<OfflineRecord> records)
+            throws SQLException;
+
+    /**
+     * Fecha as conexões
+     */
+    protected abstract void disconnect();
+
+    @Override
+    public boolean open() {
+        if (!connect()) {
+            return false;
+        }
+        writeQueue.start(flushIntervalSeconds);
+        return true;
+    }
+
+    @Override
+    public OfflineRecord get(String placeholder, UUID uuid) {
+        Map<UUID, OfflineRecord> records = latest.get(placeholder);
+        return records != null ? records.get(uuid) : null;
+    }
+
+    @Override
+    public void put(String placeholder, OfflineRecord record) {
+        latest.computeIfAbsent(placeholder, k -> new ConcurrentHashMap<>()).put(record.getUuid(), record);
+        pending.computeIfAbsent(placeholder, k -> new ConcurrentHashMap<>()).put(record.getUuid(), record);
+        writeQueue.markDirty(placeholder, record.getUuid());
+    }
+
+    @Override
+    public void importBatch(String placeholder, List<OfflineRecord> records) throws IOException {
+        try {
+            write(placeholder, records);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<OfflineRecord> getTop(String placeholder, int limit, boolean ascending, long minLastSeen) {
+        // Valores pendentes podem tirar alguém do banco das primeiras posições: pede a mais
+        List<OfflineRecord> unsaved = unsavedRecords(placeholder, minLastSeen);
+        Map<UUID, OfflineRecord> merged = new LinkedHashMap<>();
+        Connection connection = null;
+        try {
+            connection = borrow();
+            try (PreparedStatement statement = connection.prepareStatement("SELECT uuid, name, value, last_seen FROM "
+                    + table + " WHERE placeholder = ? AND last_seen >= ? ORDER BY value " + (ascending ? "ASC" : "DESC")
+                    + " LIMIT ?")) {
+                statement.setString(1, placeholder);
+                statement.setLong(2, minLastSeen);
+                statement.setInt(3, (int) Math.min(Integer.MAX_VALUE, (long) limit + unsaved.size()));
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        OfflineRecord record = readRecord(resultSet);
+                        if (record != null) {
+                            merged.put(record.getUuid(), record);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Erro ao consultar ranking offline de " + placeholder + ": " + e.getMessage());
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+        }
+
+        if (unsaved.isEmpty()) {
+            return trim(new ArrayList<>(merged.values()), limit);
+        }
+        for (OfflineRecord record : unsaved) {
+            merged.put(record.getUuid(), record);
+        }
+        List<OfflineRecord> records = new ArrayList<>(merged.values());
+        Comparator<OfflineRecord> order = Comparator.comparingDouble(OfflineRecord::getValue);
+        records.sort(ascending ? order : order.reversed());
+        return trim(records, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A contagem usa os valores já gravados no banco; valores de outros jogadores ainda
+     * pendentes só contam após a próxima gravação.
+     */
+    @Override
+    public PlayerRank getRank(String placeholder, UUID uuid, boolean ascending, long minLastSeen) {
+        OfflineRecord own = get(placeholder, uuid);
+        if (own != null && own.getLastSeen() < minLastSeen) {
+            return null;
+        }
+        Connection connection = null;
+        try {
+            connection = borrow();
+            Double value = own != null ? own.getValue() : null;
+            if (value == null) {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "SELECT value FROM " + table + " WHERE placeholder = ? AND uuid = ? AND last_seen >= ?")) {
+                    statement.setString(1, placeholder);
+                    statement.setString(2, uuid.toString());
+                    statement.setLong(3, minLastSeen);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (!resultSet.next()) {
+                            return null;
+                        }
+                        value = resultSet.getDouble(1);
+                    }
+                }
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM " + table
+                    + " WHERE placeholder = ? AND last_seen >= ? AND uuid <> ? AND value " + (ascending ? "<" : ">")
+                    + " ?")) {
+                statement.setString(1, placeholder);
+                statement.setLong(2, minLastSeen);
+                statement.setString(3, uuid.toString());
+                statement.setDouble(4, value);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    int ahead = resultSet.next() ? resultSet.getInt(1) : 0;
+                    return new PlayerRank(ahead + 1, value);
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Erro ao consultar posição offline em " + placeholder + ": " + e.getMessage());
+            return null;
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+        }
+    }
+
+    @Override
+    public int removeExpired(long minLastSeen) {
+        for (Map<UUID, OfflineRecord> records : latest.values()) {
+            records.values().removeIf(record -> record.getLastSeen() < minLastSeen);
+        }
+        for (Map<UUID, OfflineRecord> records : pending.values()) {
+            records.values().removeIf(record -> record.getLastSeen() < minLastSeen);
+        }
+        Connection connection = null;
+        try {
+            connection = borrow();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM " + table + " WHERE last_seen < ?")) {
+                statement.setLong(1, minLastSeen);
+                return statement.executeUpdate();
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao remover dados offline expirados: " + e.getMessage());
+            return 0;
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+        }
+    }
+
+    @Override
+    public Set<String> getPlaceholders() {
+        Set<String> placeholders = new HashSet<>();
+        for (Map.Entry<String, Map<UUID, OfflineRecord>> entry : pending.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                placeholders.add(entry.getKey());
+            }
+        }
+        Connection connection = null;
+        try {
+            connection = borrow();
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT DISTINCT placeholder FROM " + table);
+                    ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    placeholders.add(resultSet.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Erro ao listar placeholders offline: " + e.getMessage());
+        } finally {
+            if (connection != null) {
+                release(connection);
+            }
+        }
+        return placeholders;
+    }
+
+    @Override
+    public boolean flush() {
+        return writeQueue.flush();
+    }
+
+    @Override
+    public void close() {
+        writeQueue.shutdown();
+        disconnect();
+    }
+
+    // Grava em uma transação os valores pendentes dos jogadores marcados
+    private void writePending(String placeholder, Set<UUID> dirty) throws IOException {
+        Map<UUID, OfflineRecord> pendingForPlaceholder = pending.get(placeholder);
+        if (pendingForPlaceholder == null) {
+            return;
+        }
+        List<OfflineRecord> records = new ArrayList<>(dirty.size());
+        for (UUID uuid : dirty) {
+            OfflineRecord record = pendingForPlaceholder.get(uuid);
+            if (record != null) {
+                records.add(record);
+            }
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+
+        try {
+            write(placeholder, records);
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+
+        // Só sai da lista de pendentes se não foi alterado de novo durante a gravação
+        for (OfflineRecord record : records) {
+            pendingForPlaceholder.remove(record.getUuid(), record);
+        }
+    }
+
+    private void write(String placeholder, List<OfflineRecord> records) throws SQLException {
+        Connection connection = borrow();
+        try {
+            connection.setAutoCommit(false);
+            try {
+                upsert(connection, placeholder, records);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } finally {
+            release(connection);
+        }
+    }
+
+    private List<OfflineRecord> unsavedRecords(String placeholder, long minLastSeen) {
+        Map<UUID, OfflineRecord> pendingForPlaceholder = pending.get(placeholder);
+        List<OfflineRecord> records = new ArrayList<>();
+        if (pendingForPlaceholder != null) {
+            for (OfflineRecord record : pendingForPlaceholder.values()) {
+                if (record.getLastSeen() >= minLastSeen) {
+                    records.add(record);
+                }
+            }
+        }
+        return records;
+    }
+
+    private OfflineRecord readRecord(ResultSet resultSet) throws SQLException {
+        try {
+            UUID uuid = UUID.fromString(resultSet.getString(1));
+            return new OfflineRecord(uuid, resultSet.getString(2), resultSet.getDouble(3), resultSet.getLong(4));
+        } catch (IllegalArgumentException e) {
+            return null; // UUID inválido gravado por outra ferramenta
+        }
+    }
+
+    private static List<OfflineRecord> trim(List<OfflineRecord> records, int limit) {
+        return records.size() > limit ? new ArrayList<>(records.subList(0, limit)) : records;
+    }
+}
@@ -0,0 +1,113 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Armazenamento em um banco SQLite embutido ({@code storage.sqlite.file}).
+ * <p>
+ * O SQLite aceita um único escritor, então todas as operações usam a mesma conexão, uma de cada
+ * vez. O bloqueio é um {@link ReentrantLock} porque as consultas também vêm das virtual threads
+ * do ciclo de atualização.
+ */
+public class SqliteOfflineStorage extends SqlOfflineStorage {
+
+    private final File databaseFile;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Connection connection;
+
+    /**
+     * @param plugin               instância do plugin
+     * @param databaseFile         arquivo do banco (criado se não existir)
+     * @param flushIntervalSeconds intervalo entre as gravações
+     */
+    public SqliteOfflineStorage(DynamicTopHolograms plugin, File databaseFile, long flushIntervalSeconds) {
+        super(plugin, "dth_offline_data", flushIntervalSeconds);
+        this.databaseFile = databaseFile;
+    }
+
+    @Override
+    public String getType() {
+        return "sqlite";
+    }
+
+    @Override
+    protected boolean connect() {
+        try {
+            Class.forName("org.sqlite.JDBC");
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                // WAL: leituras não esperam a gravação em lote terminar
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                        + "placeholder TEXT NOT NULL, "
+                        + "uuid TEXT NOT NULL, "
+                        + "name TEXT, "
+                        + "value REAL NOT NULL, "
+                        + "last_seen INTEGER NOT NULL, "
+                        + "PRIMARY KEY (placeholder, uuid))");
+                statement.execute("CREATE INDEX IF NOT EXISTS " + table + "_value ON " + table + " (placeholder, value)");
+            }
+        } catch (ClassNotFoundException e) {
+            plugin.getLogger().severe("Driver SQLite não encontrado: " + e.getMessage());
+            return false;
+        } catch (SQLException e) {
+            plugin.getLogger().severe("Erro ao abrir o banco SQLite " + databaseFile.getAbsolutePath() + ": "
+                    + e.getMessage());
+            return false;
+        }
+        plugin.getLogger().info("Dados offline em SQLite: " + databaseFile.getAbsolutePath());
+        return true;
+    }
+
+    @Override
+    protected Connection borrow() {
+        lock.lock();
+        return connection;
+    }
+
+    @Override
+    protected void release(Connection connection) {
+        lock.unlock();
+    }
+
+    @Override
+    protected void upsert(Connection connection, String placeholder, List<OfflineRecord> records)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT OR REPLACE INTO " + table
+                + " (placeholder, uuid, name, value, last_seen) VALUES (?, ?, ?, ?, ?)")) {
+            for (OfflineRecord record : records) {
+                statement.setString(1, placeholder);
+                statement.setString(2, record.getUuid().toString());
+                statement.setString(3, record.getName());
+                statement.setDouble(4, record.getValue());
+                statement.setLong(5, record.getLastSeen());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @Override
+    protected void disconnect() {
+        lock.lock();
+        try {
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Erro ao fechar o banco SQLite: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gravação adiada dos dados offline.
+ * <p>
+ * Uma alteração só marca o par (placeholder, UUID) como pendente. Uma única thread grava, a cada
+ * {@code storage.flush-interval-seconds}, cada placeholder com pendências uma única vez, não
+ * importa quantas alterações ele recebeu no intervalo. Se a gravação falhar, as pendências
+ * voltam para a rodada seguinte. {@link #shutdown()} grava o que restou na thread de quem chamou.
+ */
+public class WriteBehindQueue {
+
+    /**
+     * Grava as pendências de um placeholder
+     */
+    public interface Flusher {
+        /**
+         * @param placeholder placeholder com alterações
+         * @param dirty       jogadores alterados (ou removidos) desde a última gravação
+         * @throws IOException se a gravação falhar (as pendências são mantidas)
+         */
+        void flush(String placeholder, Set<UUID> dirty) throws IOException;
+    }
+
+    private final DynamicTopHolograms plugin;
+    private final Flusher flusher;
+    // Placeholder -> jogadores pendentes; o conjunto é trocado por inteiro a cada gravação
+    private final Map<String, Set<UUID>> dirty = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer;
+
+    public WriteBehindQueue(DynamicTopHolograms plugin, String threadName, Flusher flusher) {
+        this.plugin = plugin;
+        this.flusher = flusher;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param intervalSeconds intervalo entre as gravações
+     */
+    public void start(long intervalSeconds) {
+        long interval = Math.max(1, intervalSeconds);
+        writer.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Marca um jogador como alterado; pode ser chamado de qualquer thread
+     *
+     * @param placeholder placeholder alterado
+     * @param uuid        jogador alterado ou removido
+     */
+    public void markDirty(String placeholder, UUID uuid) {
+        // compute é atômico com o remove do flush: a marca nunca cai em um conjunto já gravado
+        dirty.compute(placeholder, (key, pending) -> {
+            Set<UUID> set = pending != null ? pending : ConcurrentHashMap.newKeySet();
+            set.add(uuid);
+            return set;
+        });
+    }
+
+    /**
+     * @return número de jogadores com alterações ainda não gravadas
+     */
+    public int getPendingCount() {
+        int count = 0;
+        for (Set<UUID> pending : dirty.values()) {
+            count += pending.size();
+        }
+        return count;
+    }
+
+    /**
+     * Grava todos os placeholders pendentes
+     *
+     * @return false se alguma gravação falhou (as pendências dela continuam na fila)
+     */
+    public synchronized boolean flush() {
+        boolean success = true;
+        for (String placeholder : new ArrayList<>(dirty.keySet())) {
+            Set<UUID> pending = dirty.remove(placeholder);
+            if (pending == null || pending.isEmpty()) {
+                continue;
+            }
+            try {
+                flusher.flush(placeholder, pending);
+            } catch (IOException | RuntimeException e) {
+                for (UUID uuid : pending) {
+                    markDirty(placeholder, uuid);
+                }
+                plugin.getLogger().severe("Erro ao salvar dados offline do placeholder " + placeholder + ": "
+                        + e.getMessage());
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    /**
+     * Para a thread de gravação e grava as pendências restantes de forma síncrona
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+}
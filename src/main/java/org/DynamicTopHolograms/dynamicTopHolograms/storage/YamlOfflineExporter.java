@@ -0,0 +1,46 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exporta os dados offline para arquivos YAML legíveis, um por placeholder
+ * ({@code <pasta>/<placeholder>.yml}), no mesmo formato lido pelo {@link YamlOfflineMigrator}.
+ * Para importar de volta, basta mover os arquivos para a pasta {@code playerdata}.
+ */
+public final class YamlOfflineExporter {
+
+    private YamlOfflineExporter() {
+    }
+
+    /**
+     * @param source armazenamento em uso
+     * @param folder pasta de destino (criada se não existir)
+     * @return número de placeholders exportados
+     * @throws IOException se a gravação de algum arquivo falhar
+     */
+    public static int export(OfflineDataStorage source, File folder) throws IOException {
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Não foi possível criar a pasta " + folder.getPath());
+        }
+
+        int exported = 0;
+        for (String placeholder : source.getPlaceholders()) {
+            YamlConfiguration config = new YamlConfiguration();
+            for (OfflineRecord record : source.getTop(placeholder, Integer.MAX_VALUE, false, 0)) {
+                String path = record.getUuid().toString();
+                config.set(path + ".name", record.getName());
+                config.set(path + ".value", record.getValue());
+                config.set(path + ".lastSeen", record.getLastSeen());
+            }
+            byte[] content = config.saveToString().getBytes(StandardCharsets.UTF_8);
+            AtomicFiles.write(new File(folder, placeholder + ".yml").toPath(), ByteBuffer.wrap(content));
+            exported++;
+        }
+        return exported;
+    }
+}
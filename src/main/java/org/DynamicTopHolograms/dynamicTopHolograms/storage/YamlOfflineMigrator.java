@@ -0,0 +1,152 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.DynamicTopHolograms;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.MappingEndEvent;
+import org.yaml.snakeyaml.events.MappingStartEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.events.SequenceEndEvent;
+import org.yaml.snakeyaml.events.SequenceStartEvent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Importa os arquivos {@code playerdata/<placeholder>.yml} (formato antigo do armazenamento em
+ * arquivos, ou exportados com {@code /dth export}) para o armazenamento em uso, uma única vez.
+ * <p>
+ * Os arquivos são lidos evento a evento pelo parser do SnakeYAML, sem montar o arquivo inteiro
+ * em memória, e gravados em lotes de {@value #BATCH_SIZE}. Cada arquivo importado é gravado no
+ * destino e renomeado para {@code .yml.migrated}, então não é importado de novo. Um arquivo que falhar fica como está e é tentado de novo na próxima inicialização.
+ */
+public final class YamlOfflineMigrator {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private YamlOfflineMigrator() {
+    }
+
+    /**
+     * @param plugin      instância do plugin
+     * @param dataFolder  pasta dos arquivos YAML
+     * @param target      armazenamento de destino (já aberto)
+     * @param minLastSeen valores mais antigos que isso (segundos desde a época) não são importados
+     */
+    public static void migrate(DynamicTopHolograms plugin, File dataFolder, OfflineDataStorage target,
+            long minLastSeen) {
+        File[] files = dataFolder.listFiles((dir, name) -> name.endsWith(".yml"));
+        if (files == null || files.length == 0) {
+            return;
+        }
+
+        plugin.getLogger().info("Importando " + files.length + " arquivos de dados offline para " + target.getType()
+                + "...");
+        for (File file : files) {
+            String placeholder = file.getName().substring(0, file.getName().length() - ".yml".length());
+            try {
+                int imported = migrateFile(file, placeholder, target, minLastSeen);
+                // O arquivo só é renomeado quando os dados importados já estão gravados no destino
+                if (!target.flush()) {
+                    throw new IOException("falha ao gravar os dados importados");
+                }
+                File migrated = new File(file.getParentFile(), file.getName() + ".migrated");
+                if (!file.renameTo(migrated)) {
+                    plugin.getLogger().warning("Não foi possível renomear " + file.getName()
+                            + " após a importação; ele será importado de novo na próxima inicialização");
+                }
+                plugin.getLogger().info("Importados " + imported + " jogadores para placeholder " + placeholder);
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().severe("Erro ao importar " + file.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static int migrateFile(File file, String placeholder, OfflineDataStorage target, long minLastSeen)
+            throws IOException {
+        List<OfflineRecord> batch = new ArrayList<>(BATCH_SIZE);
+        int imported = 0;
+
+        // Formato: <uuid>: { name: ..., value: ..., lastSeen: ... }
+        int depth = 0;
+        String uuid = null;
+        String key = null;
+        String name = null;
+        String value = null;
+        String lastSeen = null;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            for (Event event : new Yaml().parse(reader)) {
+                if (event instanceof MappingStartEvent || event instanceof SequenceStartEvent) {
+                    depth++;
+                    if (depth == 2) {
+                        name = null;
+                        value = null;
+                        lastSeen = null;
+                        key = null;
+                    }
+                } else if (event instanceof MappingEndEvent || event instanceof SequenceEndEvent) {
+                    if (depth == 2 && uuid != null) {
+                        OfflineRecord record = toRecord(uuid, name, value, lastSeen);
+                        if (record != null && record.getLastSeen() >= minLastSeen) {
+                            batch.add(record);
+                            if (batch.size() >= BATCH_SIZE) {
+                                target.importBatch(placeholder, batch);
+                                imported += batch.size();
+                                batch.clear();
+                            }
+                        }
+                    }
+                    if (depth == 2) {
+                        uuid = null;
+                    }
+                    depth--;
+                } else if (event instanceof ScalarEvent) {
+                    String scalar = ((ScalarEvent) event).getValue();
+                    if (depth == 1) {
+                        // Chave da raiz; um valor escalar na raiz (formato inválido) é ignorado
+                        uuid = uuid == null ? scalar : null;
+                    } else if (depth == 2) {
+                        if (key == null) {
+                            key = scalar;
+                        } else {
+                            switch (key) {
+                                case "name":
+                                    name = scalar;
+                                    break;
+                                case "value":
+                                    value = scalar;
+                                    break;
+                                case "lastSeen":
+                                    lastSeen = scalar;
+                                    break;
+                                default:
+                                    break;
+                            }
+                            key = null;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            target.importBatch(placeholder, batch);
+            imported += batch.size();
+        }
+        return imported;
+    }
+
+    private static OfflineRecord toRecord(String uuid, String name, String value, String lastSeen) {
+        try {
+            return new OfflineRecord(UUID.fromString(uuid), name, Double.parseDouble(value), Long.parseLong(lastSeen));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null; // Entrada incompleta ou inválida
+        }
+    }
+}
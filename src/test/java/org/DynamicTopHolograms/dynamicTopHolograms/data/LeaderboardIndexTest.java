@@ -0,0 +1,201 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Compara o índice com uma lista ordenada de referência depois de alterações aleatórias
+ */
+class LeaderboardIndexTest {
+
+    private static final Comparator<LeaderboardIndex.Entry> ORDER = Comparator
+            .comparingDouble(LeaderboardIndex.Entry::getValue)
+            .thenComparing(LeaderboardIndex.Entry::getUuid);
+
+    @Test
+    void randomUpdatesAndRemoves() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            LeaderboardIndex index = new LeaderboardIndex();
+            Map<UUID, LeaderboardIndex.Entry> reference = new HashMap<>();
+            List<UUID> players = new ArrayList<>();
+            for (int step = 0; step < 2_000; step++) {
+                applyRandom(index, reference, players, random);
+                if (step % 97 == 0) {
+                    assertMatches(index, reference, random);
+                }
+            }
+            assertMatches(index, reference, random);
+        }
+    }
+
+    @Test
+    void loadSortedBuildsTheSameTree() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random random = new Random(seed);
+            Map<UUID, LeaderboardIndex.Entry> reference = new HashMap<>();
+            List<UUID> players = new ArrayList<>();
+            LeaderboardIndex source = new LeaderboardIndex();
+            for (int i = 0; i < 1 + random.nextInt(1_500); i++) {
+                applyRandom(source, reference, players, random);
+            }
+
+            List<LeaderboardIndex.Entry> sorted = source.range(0, source.size(), true);
+            LeaderboardIndex index = new LeaderboardIndex();
+            load(index, sorted);
+            assertMatches(index, reference, random);
+
+            // A árvore montada em tempo linear continua correta depois de novas alterações
+            for (int i = 0; i < 500; i++) {
+                applyRandom(index, reference, players, random);
+            }
+            assertMatches(index, reference, random);
+        }
+    }
+
+    @Test
+    void loadSortedFallsBackForUnsortedInput() {
+        Random random = new Random(5);
+        Map<UUID, LeaderboardIndex.Entry> reference = new HashMap<>();
+        LeaderboardIndex source = new LeaderboardIndex();
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            applyRandom(source, reference, players, random);
+        }
+
+        List<LeaderboardIndex.Entry> shuffled = new ArrayList<>(source.range(0, source.size(), true));
+        Collections.shuffle(shuffled, random);
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.update(UUID.randomUUID(), "descartado", 1, 1);
+        load(index, shuffled);
+        assertMatches(index, reference, random);
+    }
+
+    @Test
+    void emptyIndex() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        load(index, List.of());
+
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.top(10, false, null));
+        assertEquals(List.of(), index.range(0, 10, true));
+        assertEquals(-1, index.rankOf(UUID.randomUUID(), true, 0));
+        assertNull(index.get(UUID.randomUUID()));
+    }
+
+    // Inserção, mudança de valor, mesmo valor com outro lastSeen (só o caminho é atualizado) ou remoção
+    private static void applyRandom(LeaderboardIndex index, Map<UUID, LeaderboardIndex.Entry> reference,
+            List<UUID> players, Random random) {
+        int operation = random.nextInt(10);
+        if (players.isEmpty() || operation < 4) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            players.add(uuid);
+            put(index, reference, uuid, random.nextInt(50), randomLastSeen(random));
+        } else if (operation < 6) {
+            UUID uuid = players.get(random.nextInt(players.size()));
+            put(index, reference, uuid, random.nextInt(50), randomLastSeen(random));
+        } else if (operation < 8) {
+            UUID uuid = players.get(random.nextInt(players.size()));
+            LeaderboardIndex.Entry current = reference.get(uuid);
+            if (current != null) {
+                put(index, reference, uuid, current.getValue(), randomLastSeen(random));
+            }
+        } else {
+            UUID uuid = players.get(random.nextInt(players.size()));
+            index.remove(uuid);
+            reference.remove(uuid);
+        }
+    }
+
+    private static void put(LeaderboardIndex index, Map<UUID, LeaderboardIndex.Entry> reference, UUID uuid,
+            double value, long lastSeen) {
+        String name = "p" + Long.toHexString(uuid.getMostSignificantBits()) + "_" + lastSeen;
+        index.update(uuid, name, value, lastSeen);
+        reference.put(uuid, new LeaderboardIndex.Entry(uuid, name, value, lastSeen));
+    }
+
+    private static long randomLastSeen(Random random) {
+        return 1_000 + random.nextInt(100);
+    }
+
+    private static void load(LeaderboardIndex index, List<LeaderboardIndex.Entry> entries) {
+        int count = entries.size();
+        UUID[] uuids = new UUID[count];
+        String[] names = new String[count];
+        double[] values = new double[count];
+        long[] lastSeen = new long[count];
+        for (int i = 0; i < count; i++) {
+            uuids[i] = entries.get(i).getUuid();
+            names[i] = entries.get(i).getName();
+            values[i] = entries.get(i).getValue();
+            lastSeen[i] = entries.get(i).getLastSeen();
+        }
+        index.loadSorted(uuids, names, values, lastSeen, count);
+    }
+
+    private static void assertMatches(LeaderboardIndex index, Map<UUID, LeaderboardIndex.Entry> reference,
+            Random random) {
+        List<LeaderboardIndex.Entry> ascending = new ArrayList<>(reference.values());
+        ascending.sort(ORDER);
+        List<LeaderboardIndex.Entry> descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+        assertEquals(reference.size(), index.size());
+
+        for (boolean isAscending : new boolean[]{true, false}) {
+            List<LeaderboardIndex.Entry> expected = isAscending ? ascending : descending;
+            assertSame(expected, index.range(0, Integer.MAX_VALUE, isAscending));
+            for (int i = 0; i < 5; i++) {
+                int offset = random.nextInt(expected.size() + 2);
+                int limit = random.nextInt(30);
+                List<LeaderboardIndex.Entry> slice = offset >= expected.size() ? List.of()
+                        : expected.subList(offset, Math.min(expected.size(), offset + limit));
+                assertSame(slice, index.range(offset, limit, isAscending));
+            }
+
+            // Cortes de expiração: nenhum, alguns e todos os jogadores expirados
+            for (long minLastSeen : new long[]{0, 1_000 + random.nextInt(100), 1_050, 2_000}) {
+                List<LeaderboardIndex.Entry> live = new ArrayList<>();
+                for (LeaderboardIndex.Entry entry : expected) {
+                    if (entry.getLastSeen() >= minLastSeen) {
+                        live.add(entry);
+                    }
+                }
+                int limit = 1 + random.nextInt(40);
+                assertSame(live.subList(0, Math.min(limit, live.size())),
+                        index.top(limit, isAscending, entry -> entry.getLastSeen() >= minLastSeen));
+
+                Map<UUID, Integer> ranks = new HashMap<>();
+                for (int i = 0; i < live.size(); i++) {
+                    ranks.put(live.get(i).getUuid(), i + 1);
+                }
+                for (LeaderboardIndex.Entry entry : expected) {
+                    int expectedRank = ranks.getOrDefault(entry.getUuid(), -1);
+                    assertEquals(expectedRank, index.rankOf(entry.getUuid(), isAscending, minLastSeen),
+                            "posição de " + entry.getUuid() + " com minLastSeen " + minLastSeen);
+                }
+            }
+        }
+        assertEquals(-1, index.rankOf(UUID.randomUUID(), true, 0));
+    }
+
+    private static void assertSame(List<LeaderboardIndex.Entry> expected, List<LeaderboardIndex.Entry> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getUuid(), actual.get(i).getUuid());
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getValue(), actual.get(i).getValue());
+            assertEquals(expected.get(i).getLastSeen(), actual.get(i).getLastSeen());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValueParserTest {
+
+    private final ValueParser english = ValueParser.forLocale("en_US");
+    private final ValueParser brazilian = ValueParser.forLocale("pt_BR");
+
+    @Test
+    void plainNumbers() {
+        assertEquals(42, english.parse("42"));
+        assertEquals(0.5, english.parse("0.5"));
+        assertEquals(0.05, english.parse("0.05"), 1e-15);
+        assertEquals(7, english.parse("+7"));
+        assertEquals(12, english.parse("  12  "));
+        assertEquals(123456789012345678d, english.parse("123456789012345678"));
+        // Dígitos além do que cabe em um long mantêm a magnitude
+        assertEquals(1.2345678901234568e21, english.parse("1234567890123456789012"), 1e6);
+    }
+
+    @Test
+    void groupingSeparators() {
+        assertEquals(1234, english.parse("1,234"));
+        assertEquals(1234567, english.parse("1,234,567"));
+        assertEquals(1234.5, english.parse("1,234.5"));
+        assertEquals(1234.5, english.parse("1.234,5"));
+        assertEquals(1234567, english.parse("1.234.567"));
+        assertEquals(1234567, english.parse("1 234 567"));
+        assertEquals(1234567, english.parse("1'234'567"));
+        assertEquals(1234567, english.parse("1_234_567"));
+        // Um separador que não é seguido de 3 dígitos é decimal
+        assertEquals(5.25, english.parse("5,25"));
+    }
+
+    @Test
+    void localeDecidesAmbiguousSeparator() {
+        assertEquals(1234, english.parse("1,234"));
+        assertEquals(1.234, brazilian.parse("1,234"));
+        assertEquals(1.234, english.parse("1.234"));
+        assertEquals(1234, brazilian.parse("1.234"));
+        assertEquals(1234.5, brazilian.parse("1.234,5"));
+        assertEquals(5.2, brazilian.parse("5.2"));
+    }
+
+    @Test
+    void colorCodes() {
+        assertEquals(5200, english.parse("&a5.2k"));
+        assertEquals(10, english.parse("§l§e10"));
+        assertEquals(1234, english.parse("&#FF00001,234"));
+        assertEquals(99, english.parse("§x§f§f§0§0§0§099"));
+        assertEquals(3, english.parse("&a3&r"));
+    }
+
+    @Test
+    void suffixes() {
+        assertEquals(5200, english.parse("5.2k"));
+        assertEquals(5200, english.parse("5.2 K"));
+        assertEquals(1.5e6, english.parse("1.5M"));
+        assertEquals(2e9, english.parse("2b"));
+        assertEquals(3e12, english.parse("3T"));
+        assertEquals(5200, brazilian.parse("5,2k"));
+    }
+
+    @Test
+    void durations() {
+        assertEquals(12 * 3600 + 3 * 60, english.parse("12h 3m"));
+        assertEquals(86400 + 2 * 3600, english.parse("1d 2h"));
+        assertEquals(90, english.parse("90s"));
+        assertEquals(604800, english.parse("1w"));
+        assertEquals(5400, english.parse("1.5h"));
+        assertEquals(300, english.parse("5min"));
+        assertEquals(300, english.parse("5 min"));
+        assertEquals(3 * 60 + 20, english.parse("3m 20s"));
+        // Um "m" sozinho é milhão, no formato compacto
+        assertEquals(5_000_000, english.parse("5m"));
+        assertEquals(5_000_000, english.parse("5M"));
+    }
+
+    @Test
+    void negativeAndCurrency() {
+        assertEquals(-1234.5, english.parse("-1,234.5"));
+        assertEquals(1234.56, english.parse("$1,234.56"));
+        assertEquals(-5, english.parse("$-5"));
+        assertEquals(-5, english.parse("-$5"));
+        assertEquals(10.5, english.parse("€10.5"));
+        assertEquals(1500, english.parse("£1.5k"));
+        assertEquals(1234.5, brazilian.parse("¥1.234,5"));
+        assertEquals(-2500, brazilian.parse("-2,5k"));
+    }
+
+    @Test
+    void scientificNotation() {
+        assertEquals(1.5e7, english.parse("1.5E7"));
+        assertEquals(0.002, english.parse("2e-3"), 1e-18);
+        assertEquals(3e10, english.parse("3e+10"));
+        assertEquals(-4.2e5, english.parse("-4.2e5"));
+    }
+
+    @Test
+    void percent() {
+        assertEquals(50, english.parse("50%"));
+        assertEquals(12.5, english.parse("12.5 %"));
+    }
+
+    @Test
+    void nonNumericTextIsNaN() {
+        assertNaN(english.parse("N/A"));
+        assertNaN(english.parse(""));
+        assertNaN(english.parse(null));
+        assertNaN(english.parse("&a"));
+        assertNaN(english.parse("12 kills"));
+        assertNaN(english.parse("5mana"));
+        assertNaN(english.parse("abc"));
+        assertNaN(english.parse("1,23,4"));
+        assertNaN(english.parse("-"));
+        assertNaN(english.parse("$"));
+    }
+
+    @Test
+    void defaultLocaleIsRemembered() {
+        assertEquals("", ValueParser.forLocale(null).getLocaleTag());
+        assertEquals("pt_BR", ValueParser.forLocale(" pt_BR ").getLocaleTag());
+    }
+
+    private static void assertNaN(double value) {
+        assertTrue(Double.isNaN(value), "esperado NaN, obtido " + value);
+    }
+}
@@ -0,0 +1,237 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.data.LeaderboardIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfflineJournalTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void replaysCommittedRecordsInOrder() throws IOException {
+        Path file = folder.resolve("p.dthj");
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        OfflineJournal journal = OfflineJournal.open(file, 0);
+        journal.appendPut(first, "Steve", 10.5, 1_700_000_000L);
+        journal.appendPut(second, null, -3, 3_000_000_000L);
+        journal.appendRemove(first);
+        journal.appendPut(second, "Jogadór com um nome bem comprido demais", 7, 1_700_000_001L);
+        journal.close();
+
+        List<String> visited = new ArrayList<>();
+        long valid = OfflineJournal.replay(file, recorder(visited));
+
+        assertEquals(OfflineJournal.HEADER_SIZE + 4L * OfflineJournal.RECORD_SIZE, valid);
+        assertEquals(Files.size(file), valid);
+        assertEquals(List.of(
+                "put " + first + " Steve 10.5 1700000000",
+                "put " + second + " null -3.0 3000000000",
+                "remove " + first,
+                // Nomes maiores que o registro são cortados sem partir um caractere
+                "put " + second + " Jogadór com um nome bem com 7.0 1700000001"), visited);
+    }
+
+    @Test
+    void uncommittedRecordsAreNotWritten() throws IOException {
+        Path file = folder.resolve("p.dthj");
+        OfflineJournal journal = OfflineJournal.open(file, 0);
+        journal.appendPut(UUID.randomUUID(), "Steve", 1, 1);
+        assertEquals(OfflineJournal.HEADER_SIZE, Files.size(file));
+
+        journal.commit();
+        assertEquals(OfflineJournal.HEADER_SIZE + OfflineJournal.RECORD_SIZE, Files.size(file));
+        journal.close();
+    }
+
+    @Test
+    void tornTailIsDiscardedAndTruncatedOnOpen() throws IOException {
+        Path file = folder.resolve("p.dthj");
+        writeRecords(file, 5);
+        long complete = Files.size(file);
+        // Queda no meio de uma gravação: parte de um registro no fim
+        Files.write(file, new byte[OfflineJournal.RECORD_SIZE / 2], StandardOpenOption.APPEND);
+
+        List<String> visited = new ArrayList<>();
+        long valid = OfflineJournal.replay(file, recorder(visited));
+        assertEquals(complete, valid);
+        assertEquals(5, visited.size());
+
+        // Reaberto a partir do trecho válido, o diário continua sem o lixo no meio
+        OfflineJournal journal = OfflineJournal.open(file, valid);
+        journal.appendPut(UUID.randomUUID(), "depois", 1, 1);
+        journal.close();
+        visited.clear();
+        assertEquals(Files.size(file), OfflineJournal.replay(file, recorder(visited)));
+        assertEquals(6, visited.size());
+    }
+
+    @Test
+    void crcMismatchStopsReplay() throws IOException {
+        Path file = folder.resolve("p.dthj");
+        writeRecords(file, 10);
+        byte[] bytes = Files.readAllBytes(file);
+        // Valor do quarto registro
+        bytes[OfflineJournal.HEADER_SIZE + 3 * OfflineJournal.RECORD_SIZE + 26] ^= 0x01;
+        Files.write(file, bytes);
+
+        List<String> visited = new ArrayList<>();
+        long valid = OfflineJournal.replay(file, recorder(visited));
+
+        assertEquals(OfflineJournal.HEADER_SIZE + 3L * OfflineJournal.RECORD_SIZE, valid);
+        assertEquals(3, visited.size());
+    }
+
+    @Test
+    void incompleteHeaderHasNoRecords() throws IOException {
+        Path file = folder.resolve("p.dthj");
+        Files.write(file, new byte[]{0x44, 0x54});
+
+        assertEquals(0, OfflineJournal.replay(file, recorder(new ArrayList<>())));
+        assertEquals(0, OfflineJournal.replay(folder.resolve("inexistente.dthj"), recorder(new ArrayList<>())));
+    }
+
+    @Test
+    void foreignFileIsRejected() throws IOException {
+        Path file = folder.resolve("p.dthj");
+        writeRecords(file, 2);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[0] = 0;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> OfflineJournal.replay(file, recorder(new ArrayList<>())));
+    }
+
+    @Test
+    void crashBetweenRotateAndSnapshotWriteLosesNothing() throws IOException {
+        Random random = new Random(7);
+        Path snapshotFile = folder.resolve("p.dths");
+        Path journalFile = folder.resolve("p.dthj");
+        Path segment = folder.resolve("p.dthj.1");
+
+        // Estado inicial já no snapshot
+        LeaderboardIndex live = OfflineSnapshotTest.randomIndex(100, random);
+        OfflineSnapshot.write(snapshotFile, live.range(0, live.size(), true), false);
+
+        // Alterações no diário; a compactação sela o arquivo e captura o índice...
+        OfflineJournal journal = OfflineJournal.open(journalFile, 0);
+        List<UUID> players = new ArrayList<>();
+        for (LeaderboardIndex.Entry entry : live.range(0, live.size(), true)) {
+            players.add(entry.getUuid());
+        }
+        applyRandom(live, journal, players, random, 200);
+        journal.commit();
+        List<LeaderboardIndex.Entry> captured = journal.rotate(segment, () -> live.range(0, live.size(), true));
+        assertEquals(live.size(), captured.size());
+
+        // ...mas o processo cai antes de gravar o snapshot, com mais alterações no diário novo
+        applyRandom(live, journal, players, random, 50);
+        journal.close();
+
+        // Inicialização: snapshot antigo + diário selado + diário atual, em ordem
+        OfflineSnapshot snapshot = OfflineSnapshot.read(snapshotFile);
+        LeaderboardIndex recovered = new LeaderboardIndex();
+        recovered.loadSorted(snapshot.getUuids(), snapshot.getNames(), snapshot.getValues(),
+                snapshot.getLastSeen(), snapshot.getCount());
+        OfflineJournal.Visitor replay = new OfflineJournal.Visitor() {
+            @Override
+            public void put(UUID uuid, String name, double value, long lastSeen) {
+                recovered.update(uuid, name, value, lastSeen);
+            }
+
+            @Override
+            public void remove(UUID uuid) {
+                recovered.remove(uuid);
+            }
+        };
+        assertEquals(Files.size(segment), OfflineJournal.replay(segment, replay));
+        assertEquals(Files.size(journalFile), OfflineJournal.replay(journalFile, replay));
+
+        assertSameEntries(live.range(0, live.size(), true), recovered.range(0, recovered.size(), true));
+    }
+
+    @Test
+    void rotateKeepsPendingRecordsForTheNewFile() throws IOException {
+        Path file = folder.resolve("p.dthj");
+        Path segment = folder.resolve("p.dthj.1");
+        OfflineJournal journal = OfflineJournal.open(file, 0);
+        journal.appendPut(UUID.randomUUID(), "gravado", 1, 1);
+        journal.commit();
+        journal.appendPut(UUID.randomUUID(), "pendente", 2, 2);
+        journal.rotate(segment, () -> null);
+        journal.close();
+
+        List<String> sealed = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        OfflineJournal.replay(segment, recorder(sealed));
+        OfflineJournal.replay(file, recorder(current));
+        assertEquals(1, sealed.size());
+        assertTrue(sealed.get(0).contains("gravado"));
+        assertEquals(1, current.size());
+        assertTrue(current.get(0).contains("pendente"));
+    }
+
+    private static void applyRandom(LeaderboardIndex index, OfflineJournal journal, List<UUID> players,
+            Random random, int changes) {
+        for (int i = 0; i < changes; i++) {
+            UUID uuid = random.nextInt(4) == 0 ? UUID.randomUUID() : players.get(random.nextInt(players.size()));
+            if (random.nextInt(5) == 0) {
+                index.remove(uuid);
+                journal.appendRemove(uuid);
+            } else {
+                double value = random.nextInt(500);
+                long lastSeen = 1_700_000_000L + random.nextInt(1_000);
+                index.update(uuid, "p" + i, value, lastSeen);
+                journal.appendPut(uuid, "p" + i, value, lastSeen);
+                players.add(uuid);
+            }
+        }
+    }
+
+    private static void assertSameEntries(List<LeaderboardIndex.Entry> expected, List<LeaderboardIndex.Entry> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getUuid(), actual.get(i).getUuid());
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).getValue(), actual.get(i).getValue());
+            assertEquals(expected.get(i).getLastSeen(), actual.get(i).getLastSeen());
+        }
+    }
+
+    private static void writeRecords(Path file, int count) throws IOException {
+        OfflineJournal journal = OfflineJournal.open(file, 0);
+        for (int i = 0; i < count; i++) {
+            journal.appendPut(UUID.randomUUID(), "p" + i, i, 1_700_000_000L + i);
+        }
+        journal.close();
+    }
+
+    private static OfflineJournal.Visitor recorder(List<String> visited) {
+        return new OfflineJournal.Visitor() {
+            @Override
+            public void put(UUID uuid, String name, double value, long lastSeen) {
+                visited.add("put " + uuid + " " + name + " " + value + " " + lastSeen);
+            }
+
+            @Override
+            public void remove(UUID uuid) {
+                visited.add("remove " + uuid);
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package org.DynamicTopHolograms.dynamicTopHolograms.storage;
+
+import org.DynamicTopHolograms.dynamicTopHolograms.data.LeaderboardIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OfflineSnapshotTest {
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void roundTripUncompressed() throws IOException {
+        assertRoundTrip(false);
+    }
+
+    @Test
+    void roundTripDeflate() throws IOException {
+        assertRoundTrip(true);
+    }
+
+    @Test
+    void roundTripEmpty() throws IOException {
+        Path file = folder.resolve("vazio.dths");
+        OfflineSnapshot.write(file, List.of(), true);
+
+        assertEquals(0, OfflineSnapshot.read(file).getCount());
+    }
+
+    @Test
+    void retainSinceKeepsOrder() throws IOException {
+        LeaderboardIndex index = randomIndex(200, new Random(3));
+        Path file = folder.resolve("p.dths");
+        OfflineSnapshot.write(file, index.range(0, index.size(), true), false);
+
+        OfflineSnapshot snapshot = OfflineSnapshot.read(file);
+        long minLastSeen = 1_700_000_100L;
+        int kept = snapshot.retainSince(minLastSeen);
+
+        List<LeaderboardIndex.Entry> expected = index.range(0, index.size(), true).stream()
+                .filter(entry -> entry.getLastSeen() >= minLastSeen)
+                .toList();
+        assertEquals(expected.size(), kept);
+        for (int i = 0; i < kept; i++) {
+            assertEquals(expected.get(i).getUuid(), snapshot.getUuids()[i]);
+        }
+    }
+
+    @Test
+    void checksumMismatchIsRejected() throws IOException {
+        for (boolean compress : new boolean[]{false, true}) {
+            Path file = writeRandom("crc" + compress + ".dths", compress);
+            byte[] bytes = Files.readAllBytes(file);
+            // Meio dos dados, depois do cabeçalho (o fim do fluxo deflate é só o trailer do zlib)
+            bytes[bytes.length / 2] ^= 0x10;
+            Files.write(file, bytes);
+
+            assertThrows(IOException.class, () -> OfflineSnapshot.read(file));
+        }
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        for (boolean compress : new boolean[]{false, true}) {
+            Path file = writeRandom("truncado" + compress + ".dths", compress);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+            assertThrows(IOException.class, () -> OfflineSnapshot.read(file));
+        }
+        Path header = folder.resolve("cabecalho.dths");
+        Files.write(header, new byte[10]);
+        assertThrows(IOException.class, () -> OfflineSnapshot.read(header));
+    }
+
+    @Test
+    void unsupportedVersionIsRejected() throws IOException {
+        Path file = writeRandom("versao.dths", false);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[5] = 99;
+        Files.write(file, bytes);
+
+        assertThrows(IOException.class, () -> OfflineSnapshot.read(file));
+    }
+
+    private void assertRoundTrip(boolean compress) throws IOException {
+        LeaderboardIndex index = randomIndex(5_000, new Random(compress ? 1 : 2));
+        List<LeaderboardIndex.Entry> entries = index.range(0, index.size(), true);
+        Path file = folder.resolve("p" + compress + ".dths");
+        OfflineSnapshot.write(file, entries, compress);
+
+        OfflineSnapshot snapshot = OfflineSnapshot.read(file);
+        assertEquals(entries.size(), snapshot.getCount());
+        for (int i = 0; i < entries.size(); i++) {
+            LeaderboardIndex.Entry entry = entries.get(i);
+            assertEquals(entry.getUuid(), snapshot.getUuids()[i]);
+            assertEquals(entry.getName(), snapshot.getNames()[i]);
+            assertEquals(entry.getValue(), snapshot.getValues()[i]);
+            assertEquals(entry.getLastSeen(), snapshot.getLastSeen()[i]);
+        }
+
+        // A leitura monta o mesmo índice, sem reordenar
+        LeaderboardIndex loaded = new LeaderboardIndex();
+        loaded.loadSorted(snapshot.getUuids(), snapshot.getNames(), snapshot.getValues(), snapshot.getLastSeen(),
+                snapshot.getCount());
+        assertEquals(entries.stream().map(LeaderboardIndex.Entry::getUuid).toList(),
+                loaded.range(0, loaded.size(), true).stream().map(LeaderboardIndex.Entry::getUuid).toList());
+    }
+
+    private Path writeRandom(String name, boolean compress) throws IOException {
+        LeaderboardIndex index = randomIndex(300, new Random(name.hashCode()));
+        Path file = folder.resolve(name);
+        OfflineSnapshot.write(file, index.range(0, index.size(), true), compress);
+        return file;
+    }
+
+    // Valores repetidos (empates), nomes ausentes e fora do ASCII, lastSeen acima de 2^31
+    static LeaderboardIndex randomIndex(int count, Random random) {
+        LeaderboardIndex index = new LeaderboardIndex();
+        for (int i = 0; i < count; i++) {
+            String name = i % 7 == 0 ? null : (i % 5 == 0 ? "Jogadór_" : "player") + i;
+            long lastSeen = i % 11 == 0 ? 3_000_000_000L + i : 1_700_000_000L + random.nextInt(200);
+            index.update(new UUID(random.nextLong(), random.nextLong()), name, random.nextInt(1_000) - 200,
+                    lastSeen);
+        }
+        return index;
+    }
+}